@@ -0,0 +1,44 @@
+package com.smartpayment.nxt.hierarchy.parameters.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseParameterDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson readValue de un hierarchy_attributes aislado, sin el costo del ResultSet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ParsingBenchmark {
+
+  private ObjectMapper mapper;
+  private String attributes;
+
+  @Setup
+  public void setUp() {
+    mapper = Jackson2ObjectMapperBuilder.json().build();
+    attributes = SyntheticData.hierarchyAttributes(1);
+  }
+
+  @Benchmark
+  public ResponseParameterDTO readHierarchyAttributes() throws JsonProcessingException {
+    return mapper.readValue(attributes, ResponseParameterDTO.class);
+  }
+}
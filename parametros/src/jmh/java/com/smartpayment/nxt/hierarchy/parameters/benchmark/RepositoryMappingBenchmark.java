@@ -0,0 +1,84 @@
+package com.smartpayment.nxt.hierarchy.parameters.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartpayment.nxt.hierarchy.parameters.cache.TemplateAttributesCache;
+import com.smartpayment.nxt.hierarchy.parameters.dto.GroupedParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.ParameterPropertyObjectDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseDataParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.repository.impl.ParameterRepositoryImpl;
+import com.smartpayment.nxt.hierarchy.parameters.repository.impl.ReadYourWritesRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row mappers de ParameterRepositoryImpl sobre ResultSets sintéticos:
+ * getCategory/getGroupParameter (catálogo), Jackson readValue de
+ * hierarchy_attributes (lista de parámetros) y elementos de plantilla por TemplateAttributesCache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class RepositoryMappingBenchmark {
+
+  /** Filas por consulta: catálogo pequeño, catálogo típico y página grande */
+  @Param({"50", "500", "5000"})
+  public int rows;
+
+  private final MapSqlParameterSource params = new MapSqlParameterSource();
+  private ParameterRepositoryImpl catalogRepository;
+  private ParameterRepositoryImpl hierarchyRepository;
+  private ParameterRepositoryImpl templateRepository;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+    catalogRepository = repository(mapper, SyntheticData.CATALOG_COLUMNS, SyntheticData.catalogRows(rows));
+    hierarchyRepository = repository(mapper, SyntheticData.HIERARCHY_COLUMNS, SyntheticData.hierarchyRows(rows));
+    templateRepository = repository(mapper, SyntheticData.TEMPLATE_COLUMNS, SyntheticData.templateRows(rows));
+  }
+
+  private static ParameterRepositoryImpl repository(ObjectMapper mapper, List<String> columns, List<Object[]> data) {
+    StubJdbcTemplate jdbcTemplate = new StubJdbcTemplate(() -> SyntheticResultSet.of(columns, data));
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    TemplateAttributesCache templateAttributesCache = new TemplateAttributesCache(mapper, meterRegistry, 2000);
+    // Sin escrituras previas todas las lecturas van a la réplica; se deshabilita para no consultar el WAL
+    ReadYourWritesRouter router = new ReadYourWritesRouter(jdbcTemplate, jdbcTemplate, meterRegistry, false,
+        Duration.ofSeconds(30), Duration.ofMillis(200));
+    return new ParameterRepositoryImpl(mapper, jdbcTemplate, jdbcTemplate, templateAttributesCache, router);
+  }
+
+  @Benchmark
+  public GroupedParameterDTO catalog() {
+    return catalogRepository.getCatalog(params, "catalog");
+  }
+
+  @Benchmark
+  public ResponseDataParameterDTO parametersHierarchy() {
+    return hierarchyRepository.getParametersHierarchy(params, rows, 1, rows, 0, "parameters");
+  }
+
+  @Benchmark
+  public List<ParameterPropertyObjectDTO> template() {
+    return templateRepository.getTemplate(params);
+  }
+}
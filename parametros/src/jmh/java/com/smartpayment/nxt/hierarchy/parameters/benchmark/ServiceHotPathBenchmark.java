@@ -0,0 +1,107 @@
+package com.smartpayment.nxt.hierarchy.parameters.benchmark;
+
+import com.smartpayment.nxt.hierarchy.parameters.cache.TranslationStore;
+import com.smartpayment.nxt.hierarchy.parameters.dto.GroupedParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseDataParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.repository.ParametersRepository;
+import com.smartpayment.nxt.hierarchy.parameters.service.impl.ParameterServiceImpl;
+import com.smartpayment.nxt.hierarchy.parameters.util.ParametersTranslate;
+import com.smartpayment.nxt.hierarchy.parameters.util.TranslationIndex;
+import com.smartpayments.nxt.dto.ResponseCodeDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.smartpayment.nxt.hierarchy.parameters.controller.ParameterController.MODULE;
+
+/**
+ * Trabajo en memoria por solicitud: resolución de idioma y búsqueda de
+ * traducciones, armado de la respuesta traducida y verifySpread sobre el catálogo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ServiceHotPathBenchmark {
+
+  private static final int TRANSLATION_CODES = 300;
+  private static final String ACCEPT_LANGUAGE = "es-MX,es;q=0.9,en;q=0.8";
+
+  private TranslationStore translationStore;
+  private TranslationIndex translations;
+  private final ParametersTranslate parametersTranslate = new ParametersTranslate();
+  private ParameterServiceImpl parameterService;
+  private String hitCode;
+
+  @Setup
+  public void setUp() {
+    ParametersRepository repository = (ParametersRepository) Proxy.newProxyInstance(
+        ParametersRepository.class.getClassLoader(), new Class<?>[]{ParametersRepository.class},
+        (proxy, method, args) -> {
+          if (method.getName().equals("getAllTranslate")) {
+            return Map.of(MODULE, Map.of(
+                "es", SyntheticData.translations(TRANSLATION_CODES),
+                "en", SyntheticData.translations(TRANSLATION_CODES)));
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+    translationStore = new TranslationStore(repository);
+    translationStore.refresh();
+    translations = translationStore.getTranslations(MODULE, ACCEPT_LANGUAGE);
+    hitCode = SyntheticData.code(TRANSLATION_CODES / 2);
+    // verifySpread no usa dependencias; se invoca sin el proxy @Async
+    parameterService = new ParameterServiceImpl(null, null, null, null, null, null, null, null, null);
+  }
+
+  @State(Scope.Benchmark)
+  public static class CatalogState {
+    /** Parámetros en el catálogo revisado por verifySpread */
+    @Param({"50", "500", "5000"})
+    public int parameters;
+    private GroupedParameterDTO catalog;
+
+    @Setup
+    public void setUp() {
+      catalog = SyntheticData.catalog(parameters);
+    }
+  }
+
+  @Benchmark
+  public TranslationIndex resolveTranslations() {
+    return translationStore.getTranslations(MODULE, ACCEPT_LANGUAGE);
+  }
+
+  @Benchmark
+  public ResponseCodeDTO translationHit() {
+    return translations.getResponseCode(hitCode);
+  }
+
+  @Benchmark
+  public ResponseCodeDTO translationMiss() {
+    return translations.getResponseCode("nxt-msa-hierarchy-parameter_999_99");
+  }
+
+  @Benchmark
+  public ResponseDataParameterDTO translateResponse() {
+    return parametersTranslate.getTranslateResponseDataParameter(new ResponseDataParameterDTO(), hitCode, translations);
+  }
+
+  @Benchmark
+  public Integer verifySpread(CatalogState state) {
+    return parameterService.verifySpread(state.catalog).join();
+  }
+}
@@ -0,0 +1,53 @@
+package com.smartpayment.nxt.hierarchy.parameters.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * NamedParameterJdbcTemplate que entrega un ResultSet sintético a los callbacks
+ * del repositorio, para que el benchmark mida solo el mapeo de filas.
+ */
+final class StubJdbcTemplate extends NamedParameterJdbcTemplate {
+  private final Supplier<ResultSet> resultSet;
+
+  StubJdbcTemplate(Supplier<ResultSet> resultSet) {
+    super(new JdbcTemplate());
+    this.resultSet = resultSet;
+  }
+
+  @Override
+  public void query(String sql, SqlParameterSource paramSource, RowCallbackHandler rch) {
+    try {
+      ResultSet rs = resultSet.get();
+      while (rs.next()) {
+        rch.processRow(rs);
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public <T> List<T> query(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper) {
+    try {
+      ResultSet rs = resultSet.get();
+      List<T> rows = new ArrayList<>();
+      int rowNum = 0;
+      while (rs.next()) {
+        rows.add(rowMapper.mapRow(rs, rowNum++));
+      }
+      return rows;
+    } catch (SQLException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package com.smartpayment.nxt.hierarchy.parameters.benchmark;
+
+import com.smartpayment.nxt.hierarchy.parameters.dto.CategoryDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.GroupedParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.ParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.TranslateDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos sintéticos con la forma de las consultas reales: el catálogo agrupa
+ * ~25 parámetros por categoría, cada fila de jerarquía trae su JSON de atributos
+ * y cada plantilla define 6 elementos.
+ */
+final class SyntheticData {
+  static final int PARAMETERS_PER_CATEGORY = 25;
+  static final int TEMPLATE_ELEMENTS = 6;
+
+  static final List<String> CATALOG_COLUMNS = List.of("category_name", "category_description", "idsystem",
+      "idparameter", "idproperty", "idhierarchy", "status", "max_properties", "parameter_name", "spread",
+      "parameter_description");
+  static final List<String> HIERARCHY_COLUMNS = List.of("hierarchy_attributes", "idSystem", "idProperty",
+      "idParamater", "idHierarchy", "id", "status", "spread");
+  static final List<String> TEMPLATE_COLUMNS = List.of("idSystem", "idParameter", "idHierarchy", "status",
+      "property_attributes");
+
+  private SyntheticData() {
+  }
+
+  /** Filas del catálogo ordenadas por categoría, como las regresa GET_GROUPED_PARAMETERS */
+  static List<Object[]> catalogRows(int parameters) {
+    List<Object[]> rows = new ArrayList<>(parameters);
+    for (int i = 0; i < parameters; i++) {
+      int category = i / PARAMETERS_PER_CATEGORY;
+      rows.add(new Object[]{"CATEGORIA_" + category, "Descripción de la categoría " + category, i, i * 3, i * 7, 1001,
+          1, 5, "PARAMETRO_" + i, 2, "Descripción del parámetro " + i});
+    }
+    return rows;
+  }
+
+  static String hierarchyAttributes(int i) {
+    return "{\"AMOUNT\":\"" + (1000 + i) + ".00\",\"TYPE\":\"MONTO\",\"LABEL_PARAMETER\":\"Monto máximo por operación " + i
+        + "\",\"AMOUNT_MIN\":\"10.00\",\"AMOUNT_MAX\":\"50000.00\",\"CURRENCY\":\"MXN\",\"CHANNEL\":\"POS\"}";
+  }
+
+  static List<Object[]> hierarchyRows(int size) {
+    List<Object[]> rows = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      rows.add(new Object[]{hierarchyAttributes(i), 10, 20 + i % 4, 30, 1001, 50_000 + i, 1, 2});
+    }
+    return rows;
+  }
+
+  static String templateAttributes(int elements) {
+    StringBuilder json = new StringBuilder("[");
+    for (int e = 0; e < elements; e++) {
+      if (e > 0) {
+        json.append(',');
+      }
+      json.append("{\"label\":\"Campo ").append(e)
+          .append("\",\"length\":\"20\",\"data_type\":\"").append(e % 2 == 0 ? "string" : "number")
+          .append("\",\"field_name\":\"FIELD_").append(e)
+          .append("\",\"default_value\":\"0\",\"place_holder\":\"Capture el valor\",\"required\":").append(e % 3 == 0)
+          .append('}');
+    }
+    return json.append(']').toString();
+  }
+
+  static List<Object[]> templateRows(int properties) {
+    String attributes = templateAttributes(TEMPLATE_ELEMENTS);
+    List<Object[]> rows = new ArrayList<>(properties);
+    for (int i = 0; i < properties; i++) {
+      // Cada fila trae su propia cadena, como la entrega el driver
+      rows.add(new Object[]{10, i, 1001, 1, new String(attributes.toCharArray())});
+    }
+    return rows;
+  }
+
+  static List<TranslateDTO> translations(int codes) {
+    List<TranslateDTO> list = new ArrayList<>(codes);
+    for (int i = 0; i < codes; i++) {
+      list.add(new TranslateDTO(code(i), "Mensaje traducido " + i));
+    }
+    return list;
+  }
+
+  static String code(int i) {
+    return String.format("nxt-msa-hierarchy-parameter_%03d_%02d", 200 + i / 100, i % 100);
+  }
+
+  /** Catálogo armado; solo el último parámetro está marcado para propagar (peor caso de verifySpread) */
+  static GroupedParameterDTO catalog(int parameters) {
+    GroupedParameterDTO grouped = new GroupedParameterDTO();
+    grouped.setCategories(new ArrayList<>());
+    CategoryDTO category = null;
+    for (int i = 0; i < parameters; i++) {
+      if (i % PARAMETERS_PER_CATEGORY == 0) {
+        category = CategoryDTO.builder().name("CATEGORIA_" + i / PARAMETERS_PER_CATEGORY).parameterDTOS(new ArrayList<>()).build();
+        grouped.getCategories().add(category);
+      }
+      category.getParameterDTOS().add(ParameterDTO.builder()
+          .idSystem(i).name("PARAMETRO_" + i).status(1).spread(i == parameters - 1 ? 1 : 2).build());
+    }
+    return grouped;
+  }
+}
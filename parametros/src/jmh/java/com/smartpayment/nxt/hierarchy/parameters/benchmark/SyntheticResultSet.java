@@ -0,0 +1,65 @@
+package com.smartpayment.nxt.hierarchy.parameters.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ResultSet en memoria para medir los row mappers sin base de datos. Solo
+ * implementa next, getString, getInt, getLong, getObject y wasNull; las etiquetas
+ * de columna no distinguen mayúsculas, igual que el driver de PostgreSQL.
+ */
+final class SyntheticResultSet {
+
+  private SyntheticResultSet() {
+  }
+
+  static ResultSet of(List<String> columns, List<Object[]> rows) {
+    Map<String, Integer> index = new HashMap<>();
+    for (int i = 0; i < columns.size(); i++) {
+      index.put(columns.get(i).toLowerCase(Locale.ROOT), i);
+    }
+    int[] cursor = {-1};
+    Object[] last = {null};
+    return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "next":
+              return ++cursor[0] < rows.size();
+            case "close":
+              return null;
+            case "wasNull":
+              return last[0] == null;
+            case "getString", "getInt", "getLong", "getObject":
+              Object value = value(rows.get(cursor[0]), index, args[0]);
+              last[0] = value;
+              return convert(method.getName(), value);
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+  private static Object value(Object[] row, Map<String, Integer> index, Object column) {
+    if (column instanceof Integer position) {
+      return row[position - 1];
+    }
+    Integer position = index.get(((String) column).toLowerCase(Locale.ROOT));
+    if (position == null) {
+      throw new IllegalArgumentException("Columna inexistente: " + column);
+    }
+    return row[position];
+  }
+
+  private static Object convert(String getter, Object value) {
+    return switch (getter) {
+      case "getString" -> value != null ? value.toString() : null;
+      case "getInt" -> value != null ? ((Number) value).intValue() : 0;
+      case "getLong" -> value != null ? ((Number) value).longValue() : 0L;
+      default -> value;
+    };
+  }
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.autoconfigure.data.jdbc.JdbcRepositoriesAutoConf
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.context.annotation.Import;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import com.smartpayment.nxt.config.GenericDataSourceConfig;
 import com.smartpayment.nxt.logging.service.impl.LoggingServiceImpl;
 @Import({GenericDataSourceConfig.class,
@@ -22,6 +23,7 @@ import com.smartpayment.nxt.logging.service.impl.LoggingServiceImpl;
 )
 @EnableAspectJAutoProxy
 @EnableAsync
+@EnableScheduling
 public class HierarchyApplication {
 
     public static void main(String[] args) {
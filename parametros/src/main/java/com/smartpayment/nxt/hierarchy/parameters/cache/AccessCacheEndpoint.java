@@ -0,0 +1,27 @@
+package com.smartpayment.nxt.hierarchy.parameters.cache;
+
+import com.smartpayment.nxt.hierarchy.parameters.service.impl.AccessService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Endpoint administrativo para invalidar la cache de accesos cuando cambian roles
+ * o políticas: DELETE /actuator/accesscache?user=..&roleId=..
+ */
+@Component
+@Endpoint(id = "accesscache")
+@RequiredArgsConstructor
+public class AccessCacheEndpoint {
+
+  private final AccessService accessService;
+
+  @DeleteOperation
+  public Map<String, Long> evict(@Nullable String user, @Nullable String roleId) {
+    return Map.of("evicted", accessService.evict(user, roleId));
+  }
+}
@@ -0,0 +1,262 @@
+package com.smartpayment.nxt.hierarchy.parameters.cache;
+
+import com.smartpayment.nxt.hierarchy.parameters.models.ParameterChange;
+import com.smartpayment.nxt.hierarchy.parameters.repository.ParametersRepository;
+import com.smartpayment.nxt.hierarchy.parameters.repository.impl.ReadYourWritesRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ALL_NODES;
+
+/**
+ * Invalidación de caches entre instancias con LISTEN/NOTIFY de PostgreSQL. Las escrituras
+ * publican (hierarchy_id, parameter_id) dentro de su transacción, así que la notificación
+ * solo llega si se confirmó. Cada instancia escucha en una conexión dedicada del pool del
+ * primario e invalida el catálogo, los parámetros efectivos y el nodo afectados, y sincroniza
+ * el índice de la jerarquía; sus lecturas van al primario hasta que la réplica alcance la
+ * escritura. Al conectar o reconectar no se sabe qué se perdió, por lo que se invalida todo y
+ * el índice se recarga completo.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationChannel {
+  public static final String METRIC_NAME = "hierarchy.cache.notifications";
+  private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+  private final ParametersRepository parameterRepository;
+  private final DataSource dataSource;
+  private final CatalogCache catalogCache;
+  private final EffectiveParameterCache effectiveParameterCache;
+  private final HierarchyNodeCache hierarchyNodeCache;
+  private final HierarchyIndex hierarchyIndex;
+  private final ReadYourWritesRouter readYourWritesRouter;
+  private final boolean enabled;
+  private final String channel;
+  private final int pollMillis;
+  private final long reconnectDelayMillis;
+  /** Identifica a esta instancia para no procesar sus propias notificaciones */
+  private final String origin = UUID.randomUUID().toString();
+  private final Counter received;
+  private final Counter reconnects;
+
+  private volatile boolean running;
+  private volatile Connection connection;
+  private Thread listener;
+
+  public CacheInvalidationChannel(ParametersRepository parameterRepository,
+                                  @Qualifier("primaryJdbcTemplate") NamedParameterJdbcTemplate primaryJdbcTemplate,
+                                  CatalogCache catalogCache,
+                                  EffectiveParameterCache effectiveParameterCache,
+                                  HierarchyNodeCache hierarchyNodeCache,
+                                  HierarchyIndex hierarchyIndex,
+                                  ReadYourWritesRouter readYourWritesRouter,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${hierarchy.cache.invalidation.enabled:true}") boolean enabled,
+                                  @Value("${hierarchy.cache.invalidation.channel:hierarchy_parameters_changed}") String channel,
+                                  @Value("${hierarchy.cache.invalidation.poll-timeout:PT10S}") Duration pollTimeout,
+                                  @Value("${hierarchy.cache.invalidation.reconnect-delay:PT5S}") Duration reconnectDelay) {
+    if (!CHANNEL_NAME.matcher(channel).matches()) {
+      throw new IllegalArgumentException("Canal de notificaciones invalido: " + channel);
+    }
+    this.parameterRepository = parameterRepository;
+    this.dataSource = primaryJdbcTemplate.getJdbcTemplate().getDataSource();
+    this.catalogCache = catalogCache;
+    this.effectiveParameterCache = effectiveParameterCache;
+    this.hierarchyNodeCache = hierarchyNodeCache;
+    this.hierarchyIndex = hierarchyIndex;
+    this.readYourWritesRouter = readYourWritesRouter;
+    this.enabled = enabled;
+    this.channel = channel;
+    this.pollMillis = (int) pollTimeout.toMillis();
+    this.reconnectDelayMillis = reconnectDelay.toMillis();
+    this.received = Counter.builder(METRIC_NAME + ".received")
+        .description("Notificaciones de cambio recibidas de otras instancias")
+        .register(meterRegistry);
+    this.reconnects = Counter.builder(METRIC_NAME + ".reconnects")
+        .description("Conexiones de escucha abiertas; cada una invalida todos los caches")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Publica el cambio de un nodo. Dentro de la transacción de la escritura se entrega al confirmar.
+   * Un error se propaga: la transacción ya quedó abortada y las demás instancias no se enterarían
+   * del cambio.
+   * @param idHierarchy hierarchy_id escrito
+   * @param idSystem parameter_id escrito, puede ser null
+   */
+  public void publish(Integer idHierarchy, Integer idSystem) {
+    if (!enabled || idHierarchy == null) {
+      return;
+    }
+    parameterRepository.notifyChange(channel, new ParameterChange(origin, idHierarchy, idSystem).encode());
+  }
+
+  /**
+   * Publica un cambio que afecta a todos los nodos (propagación).
+   */
+  public void publishAll(Integer idSystem) {
+    publish(ALL_NODES, idSystem);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void start() {
+    if (!enabled || running) {
+      return;
+    }
+    running = true;
+    listener = Thread.ofPlatform().name("hierarchy-cache-listener").daemon().start(this::listen);
+  }
+
+  @PreDestroy
+  public synchronized void stop() {
+    running = false;
+    closeConnection();
+    if (listener != null) {
+      listener.interrupt();
+    }
+  }
+
+  private void listen() {
+    boolean reconnecting = false;
+    while (running) {
+      try {
+        Connection current = dataSource.getConnection();
+        connection = current;
+        current.setAutoCommit(true);
+        try (Statement statement = current.createStatement()) {
+          statement.execute("LISTEN " + channel);
+        }
+        reconnects.increment();
+        log.info("Escuchando cambios de parámetros en el canal {}", channel);
+        evictAll(reconnecting);
+        reconnecting = true;
+        PGConnection pgConnection = current.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+          if (notifications != null && notifications.length > 0) {
+            apply(notifications);
+          } else if (!current.isValid(Math.max(pollMillis / 1000, 1))) {
+            throw new SQLException("Conexion de escucha invalida");
+          }
+        }
+      } catch (SQLException | RuntimeException e) {
+        if (running) {
+          log.warn("Se perdió la conexión de escucha del canal {}, reintentando en {} ms. Error: {}",
+              channel, reconnectDelayMillis, e.getMessage());
+        }
+      } finally {
+        closeConnection();
+      }
+      sleepBeforeReconnect();
+    }
+  }
+
+  private void apply(PGNotification[] notifications) {
+    Set<Integer> nodes = new LinkedHashSet<>();
+    boolean all = false;
+    for (PGNotification notification : notifications) {
+      ParameterChange change;
+      try {
+        change = ParameterChange.decode(notification.getParameter());
+      } catch (IllegalArgumentException e) {
+        log.warn("Notificación ignorada en el canal {}: {}", channel, e.getMessage());
+        continue;
+      }
+      if (origin.equals(change.origin())) {
+        // Esta instancia ya invalidó al confirmar su propia escritura
+        continue;
+      }
+      received.increment();
+      log.debug("Cambio recibido de otra instancia: {}", change);
+      if (change.allNodes()) {
+        all = true;
+      } else {
+        nodes.add(change.idHierarchy());
+      }
+    }
+    // El router antes que los caches, como en la escritura local
+    if (all) {
+      readYourWritesRouter.markAllWritten();
+      catalogCache.evictAll();
+      effectiveParameterCache.evictAll();
+      hierarchyNodeCache.evictAll();
+      hierarchyIndex.sync();
+      return;
+    }
+    if (nodes.isEmpty()) {
+      return;
+    }
+    readYourWritesRouter.markWritten(nodes);
+    nodes.forEach(idHierarchy -> {
+      catalogCache.evict(idHierarchy);
+      effectiveParameterCache.evict(idHierarchy);
+      hierarchyNodeCache.evict(idHierarchy);
+    });
+    // Una escritura de otra instancia pudo ser sobre un nodo creado después de la última sincronización
+    hierarchyIndex.sync();
+  }
+
+  /**
+   * Las notificaciones enviadas mientras no había conexión se perdieron. En la primera conexión
+   * el índice acaba de cargarse al arrancar.
+   */
+  private void evictAll(boolean reloadIndex) {
+    readYourWritesRouter.markAllWritten();
+    catalogCache.evictAll();
+    effectiveParameterCache.evictAll();
+    hierarchyNodeCache.evictAll();
+    if (reloadIndex) {
+      hierarchyIndex.refresh();
+    }
+  }
+
+  private void closeConnection() {
+    Connection current = connection;
+    connection = null;
+    if (current != null) {
+      // La conexión regresa al pool: sin UNLISTEN quien la tome acumularía las notificaciones
+      try (Statement statement = current.createStatement()) {
+        statement.execute("UNLISTEN *");
+      } catch (SQLException e) {
+        log.debug("No se pudo ejecutar UNLISTEN en la conexión de escucha: {}", e.getMessage());
+      }
+      try {
+        current.close();
+      } catch (SQLException e) {
+        log.debug("Error al cerrar la conexión de escucha: {}", e.getMessage());
+      }
+    }
+  }
+
+  private void sleepBeforeReconnect() {
+    if (!running) {
+      return;
+    }
+    try {
+      Thread.sleep(reconnectDelayMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+}
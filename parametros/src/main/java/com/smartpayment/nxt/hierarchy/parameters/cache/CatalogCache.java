@@ -0,0 +1,110 @@
+package com.smartpayment.nxt.hierarchy.parameters.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartpayment.nxt.hierarchy.parameters.dto.GroupedParameterDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cache en memoria del catálogo de parámetros por hierarchy_id.
+ * Se invalida desde los flujos de escritura de ParameterServiceImpl; el TTL
+ * solo acota el tiempo de vida ante escrituras hechas fuera de este servicio.
+ * La carga corre en el ejecutor asíncrono y no dentro del compute del mapa, para
+ * no fijar el hilo portador de un hilo virtual mientras se consulta la base de datos.
+ */
+@Slf4j
+@Component
+public class CatalogCache {
+  public static final String CACHE_NAME = "hierarchy.catalog";
+
+  private final AsyncCache<Integer, GroupedParameterDTO> cache;
+  private final Counter invalidations;
+
+  public CatalogCache(MeterRegistry meterRegistry,
+                      @Qualifier("asyncExecutor") TaskExecutor asyncExecutor,
+                      @Value("${hierarchy.cache.catalog.max-size:5000}") long maxSize,
+                      @Value("${hierarchy.cache.catalog.ttl:PT10M}") Duration ttl) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .executor(asyncExecutor)
+        .buildAsync();
+    this.invalidations = Counter.builder(CACHE_NAME + ".invalidations")
+        .description("Entradas del catalogo invalidadas por escrituras")
+        .register(meterRegistry);
+    CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+  }
+
+  /**
+   * Obtiene el catálogo del nodo, cargándolo con el loader si no está en cache.
+   * @param idHierarchy hierarchy_id del nodo
+   * @param loader carga del catálogo desde la base de datos
+   * @return catálogo del nodo
+   */
+  public GroupedParameterDTO get(Integer idHierarchy, Function<Integer, GroupedParameterDTO> loader) {
+    try {
+      return cache.get(idHierarchy, loader).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Obtiene los catálogos de varios nodos; los que no están en cache se cargan juntos con
+   * una sola llamada al loader.
+   * @param idHierarchies hierarchy_id de los nodos
+   * @param loader carga de los catálogos faltantes, debe devolver todos los nodos recibidos
+   * @return hierarchy_id -> catálogo
+   */
+  public Map<Integer, GroupedParameterDTO> getAll(Collection<Integer> idHierarchies,
+                                                  Function<Set<Integer>, Map<Integer, GroupedParameterDTO>> loader) {
+    try {
+      return cache.getAll(idHierarchies, missing -> loader.apply(Set.copyOf(missing))).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Invalida el catálogo de un nodo.
+   * @param idHierarchy hierarchy_id del nodo
+   */
+  public void evict(Integer idHierarchy) {
+    if (idHierarchy == null) {
+      return;
+    }
+    log.debug("Invalidando catálogo en cache para idHierarchy: {}", idHierarchy);
+    cache.synchronous().invalidate(idHierarchy);
+    invalidations.increment();
+  }
+
+  /**
+   * Invalida todos los catálogos; se usa cuando la escritura afecta a descendientes.
+   */
+  public void evictAll() {
+    log.debug("Invalidando todos los catálogos en cache");
+    invalidations.increment(cache.synchronous().estimatedSize());
+    cache.synchronous().invalidateAll();
+  }
+}
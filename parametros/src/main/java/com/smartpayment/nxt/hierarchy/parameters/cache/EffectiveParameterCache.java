@@ -0,0 +1,113 @@
+package com.smartpayment.nxt.hierarchy.parameters.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartpayment.nxt.hierarchy.parameters.dto.EffectiveParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.models.ParameterDefinition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cache de parámetros efectivos por herencia. Guarda por separado las definiciones
+ * propias de cada nodo y el resultado ya resuelto de cada nodo consultado: un cambio en
+ * un nodo solo vuelve a leer las definiciones de ese nodo, pero descarta todas las
+ * resoluciones porque puede afectar a cualquiera de sus descendientes.
+ */
+@Slf4j
+@Component
+public class EffectiveParameterCache {
+  public static final String CACHE_NAME = "hierarchy.effective";
+
+  private final Cache<Integer, List<ParameterDefinition>> definitions;
+  private final AsyncCache<Integer, List<EffectiveParameterDTO>> resolved;
+  private final Counter invalidations;
+
+  public EffectiveParameterCache(MeterRegistry meterRegistry,
+                                 @Qualifier("asyncExecutor") TaskExecutor asyncExecutor,
+                                 @Value("${hierarchy.cache.effective.max-size:20000}") long maxSize,
+                                 @Value("${hierarchy.cache.effective.ttl:PT10M}") Duration ttl) {
+    this.definitions = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    this.resolved = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .executor(asyncExecutor)
+        .buildAsync();
+    this.invalidations = Counter.builder(CACHE_NAME + ".invalidations")
+        .description("Definiciones de nodos invalidadas por escrituras")
+        .register(meterRegistry);
+    CaffeineCacheMetrics.monitor(meterRegistry, definitions, CACHE_NAME + ".definitions");
+    CaffeineCacheMetrics.monitor(meterRegistry, resolved.synchronous(), CACHE_NAME);
+  }
+
+  /**
+   * Obtiene los parámetros efectivos del nodo, resolviéndolos si no están en cache.
+   * @param idHierarchy hierarchy_id del nodo
+   * @param resolver resolución por herencia
+   * @return parámetros efectivos del nodo
+   */
+  public List<EffectiveParameterDTO> get(Integer idHierarchy, Function<Integer, List<EffectiveParameterDTO>> resolver) {
+    try {
+      return resolved.get(idHierarchy, resolver).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Definiciones propias de los nodos; los que faltan en cache se cargan juntos con una sola llamada al loader.
+   * @param idHierarchies hierarchy_id de los nodos
+   * @param loader carga de las definiciones desde la base de datos
+   * @return hierarchy_id -> definiciones del nodo
+   */
+  public Map<Integer, List<ParameterDefinition>> definitions(Collection<Integer> idHierarchies,
+                                                             Function<Collection<Integer>, Map<Integer, List<ParameterDefinition>>> loader) {
+    return definitions.getAll(idHierarchies, missing -> loader.apply(Set.copyOf(missing)));
+  }
+
+  /**
+   * Invalida las definiciones de un nodo y todas las resoluciones.
+   * @param idHierarchy hierarchy_id del nodo
+   */
+  public void evict(Integer idHierarchy) {
+    if (idHierarchy == null) {
+      return;
+    }
+    log.debug("Invalidando parámetros efectivos en cache para idHierarchy: {}", idHierarchy);
+    definitions.invalidate(idHierarchy);
+    resolved.synchronous().invalidateAll();
+    invalidations.increment();
+  }
+
+  /**
+   * Invalida todas las definiciones y resoluciones; se usa cuando la escritura afecta a descendientes.
+   */
+  public void evictAll() {
+    log.debug("Invalidando todos los parámetros efectivos en cache");
+    invalidations.increment(definitions.estimatedSize());
+    definitions.invalidateAll();
+    resolved.synchronous().invalidateAll();
+  }
+}
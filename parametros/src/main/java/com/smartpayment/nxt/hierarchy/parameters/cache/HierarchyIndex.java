@@ -0,0 +1,132 @@
+package com.smartpayment.nxt.hierarchy.parameters.cache;
+
+import com.smartpayment.nxt.hierarchy.parameters.dto.HierarchyNodeDTO;
+import com.smartpayment.nxt.hierarchy.parameters.repository.ParametersRepository;
+import com.smartpayment.nxt.hierarchy.parameters.util.HierarchyTree;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Índice en memoria de la jerarquía: hierarchy_id, padre, tipo y estatus de cada nodo en
+ * arreglos de enteros con rangos de Euler (ver HierarchyTree). Se carga completo al
+ * arrancar y cada refresh-interval; entre cargas completas se agregan los nodos nuevos
+ * (hierarchy_id mayor al último cargado) cada sync-interval y al recibir una notificación.
+ * Los cambios de padre o de estatus de nodos existentes se toman en la siguiente carga completa,
+ * por eso el índice solo sirve lecturas (ancestros para los parámetros efectivos); las
+ * propagaciones descubren los descendientes por hierarchy_path en la base.
+ * La carga usa un ReentrantLock y no synchronized para no fijar hilos virtuales durante el JDBC.
+ */
+@Slf4j
+@Component
+public class HierarchyIndex {
+  public static final String METRIC_NAME = "hierarchy.index";
+
+  private final ParametersRepository parameterRepository;
+  private final boolean enabled;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /** se reemplaza completo en cada carga o sincronización */
+  private volatile HierarchyTree tree = HierarchyTree.EMPTY;
+  private volatile boolean loaded;
+
+  public HierarchyIndex(ParametersRepository parameterRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${hierarchy.index.enabled:true}") boolean enabled) {
+    this.parameterRepository = parameterRepository;
+    this.enabled = enabled;
+    Gauge.builder(METRIC_NAME + ".nodes", () -> tree.size())
+        .description("Nodos cargados en el índice de la jerarquía")
+        .register(meterRegistry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    refresh();
+  }
+
+  @Scheduled(fixedDelayString = "${hierarchy.index.refresh-interval:PT5M}",
+      initialDelayString = "${hierarchy.index.refresh-interval:PT5M}")
+  public void refresh() {
+    if (!enabled) {
+      return;
+    }
+    lock.lock();
+    try {
+      HierarchyTree loadedTree = build(HierarchyTree.EMPTY, parameterRepository.getHierarchyTree(null));
+      tree = loadedTree;
+      loaded = true;
+      log.info("Índice de jerarquía cargado con {} nodos, {} descartados por ciclos", loadedTree.size(), loadedTree.detached());
+    } catch (Exception e) {
+      log.error("Error al refrescar el índice de jerarquía, se conserva el anterior. Error: {}", e.getMessage(), e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Agrega los nodos creados después de la última carga.
+   */
+  @Scheduled(fixedDelayString = "${hierarchy.index.sync-interval:PT10S}",
+      initialDelayString = "${hierarchy.index.sync-interval:PT10S}")
+  public void sync() {
+    if (!enabled || !loaded) {
+      return;
+    }
+    lock.lock();
+    try {
+      HierarchyTree current = tree;
+      List<HierarchyNodeDTO> added = parameterRepository.getHierarchyTree(current.maxId());
+      if (!added.isEmpty()) {
+        tree = build(current, added);
+        log.debug("Índice de jerarquía: {} nodos nuevos", added.size());
+      }
+    } catch (Exception e) {
+      log.warn("Error al sincronizar nodos nuevos del índice de jerarquía. Error: {}", e.getMessage());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static HierarchyTree build(HierarchyTree base, List<HierarchyNodeDTO> nodes) {
+    int size = nodes.size();
+    int[] ids = new int[size];
+    int[] parents = new int[size];
+    int[] nodeTypes = new int[size];
+    int[] statuses = new int[size];
+    for (int i = 0; i < size; i++) {
+      HierarchyNodeDTO node = nodes.get(i);
+      ids[i] = node.getIdHierarchy();
+      parents[i] = node.getIdParent() != null ? node.getIdParent() : 0;
+      nodeTypes[i] = node.getNodeTypeId() != null ? node.getNodeTypeId() : HierarchyTree.NONE;
+      statuses[i] = node.getStatus() != null ? node.getStatus() : HierarchyTree.NONE;
+    }
+    return base == HierarchyTree.EMPTY
+        ? HierarchyTree.build(ids, parents, nodeTypes, statuses)
+        : base.withNodes(ids, parents, nodeTypes, statuses);
+  }
+
+  /**
+   * Ancestros del nodo incluyendo al propio nodo, del más cercano a la raíz.
+   * @param idHierarchy hierarchy_id del nodo
+   * @return cadena de ancestros, null si el nodo no está en el índice
+   */
+  public List<Integer> ancestors(Integer idHierarchy) {
+    return idHierarchy != null ? tree.ancestors(idHierarchy) : null;
+  }
+
+  /**
+   * @return true si el nodo está bajo ancestorId según el índice
+   */
+  public boolean isDescendant(Integer idHierarchy, Integer ancestorId) {
+    return idHierarchy != null && ancestorId != null && tree.isDescendant(idHierarchy, ancestorId);
+  }
+}
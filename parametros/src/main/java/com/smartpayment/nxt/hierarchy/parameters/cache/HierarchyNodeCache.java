@@ -0,0 +1,91 @@
+package com.smartpayment.nxt.hierarchy.parameters.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartpayment.nxt.hierarchy.parameters.dto.HierarchyNodeDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cache en memoria de hierarchy_id a tipo y estatus del nodo, compartida por las
+ * lecturas de template y la validación de nodo habilitado en las escrituras.
+ * bt_hierarchy se escribe fuera de este servicio, por lo que el TTL es corto; al
+ * habilitar o deshabilitar un nodo se invalida con DELETE /actuator/nodecache.
+ * Los nodos inexistentes no se guardan.
+ */
+@Slf4j
+@Component
+public class HierarchyNodeCache {
+  public static final String CACHE_NAME = "hierarchy.node";
+
+  private final AsyncCache<Integer, HierarchyNodeDTO> cache;
+  private final Counter invalidations;
+
+  public HierarchyNodeCache(MeterRegistry meterRegistry,
+                            @Qualifier("asyncExecutor") TaskExecutor asyncExecutor,
+                            @Value("${hierarchy.cache.node.max-size:20000}") long maxSize,
+                            @Value("${hierarchy.cache.node.ttl:PT30S}") Duration ttl) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .executor(asyncExecutor)
+        .buildAsync();
+    this.invalidations = Counter.builder(CACHE_NAME + ".invalidations")
+        .description("Nodos invalidados por cambios de estatus")
+        .register(meterRegistry);
+    CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+  }
+
+  /**
+   * Obtiene el nodo, cargándolo con el loader si no está en cache.
+   * @param idHierarchy hierarchy_id del nodo
+   * @param loader carga del nodo desde la base de datos
+   * @return nodo, null si no existe
+   */
+  public HierarchyNodeDTO get(Integer idHierarchy, Function<Integer, HierarchyNodeDTO> loader) {
+    try {
+      return cache.get(idHierarchy, loader).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Invalida un nodo.
+   * @param idHierarchy hierarchy_id del nodo
+   */
+  public void evict(Integer idHierarchy) {
+    if (idHierarchy == null) {
+      return;
+    }
+    log.debug("Invalidando nodo en cache para idHierarchy: {}", idHierarchy);
+    cache.synchronous().invalidate(idHierarchy);
+    invalidations.increment();
+  }
+
+  /**
+   * Invalida todos los nodos.
+   * @return número aproximado de nodos invalidados
+   */
+  public long evictAll() {
+    long size = cache.synchronous().estimatedSize();
+    log.debug("Invalidando todos los nodos en cache");
+    cache.synchronous().invalidateAll();
+    invalidations.increment(size);
+    return size;
+  }
+}
@@ -0,0 +1,34 @@
+package com.smartpayment.nxt.hierarchy.parameters.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Endpoint administrativo para invalidar la cache de nodos cuando un nodo se
+ * habilita o deshabilita: DELETE /actuator/nodecache?id=..; sin id invalida todos.
+ * El cambio se publica para que las demás instancias también lo invaliden.
+ */
+@Component
+@Endpoint(id = "nodecache")
+@RequiredArgsConstructor
+public class NodeCacheEndpoint {
+
+  private final HierarchyNodeCache hierarchyNodeCache;
+  private final CacheInvalidationChannel cacheInvalidationChannel;
+
+  @DeleteOperation
+  public Map<String, Long> evict(@Nullable Integer id) {
+    if (id == null) {
+      cacheInvalidationChannel.publishAll(null);
+      return Map.of("evicted", hierarchyNodeCache.evictAll());
+    }
+    cacheInvalidationChannel.publish(id, null);
+    hierarchyNodeCache.evict(id);
+    return Map.of("evicted", 1L);
+  }
+}
@@ -0,0 +1,69 @@
+package com.smartpayment.nxt.hierarchy.parameters.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartpayment.nxt.hierarchy.parameters.dto.ParameterPropertyObjectDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+
+/**
+ * Cache en memoria del template de un parámetro por (node_type_id, parameter_id).
+ * El template solo depende de bt_system_parameters y bt_parameter_properties,
+ * por lo que todos los nodos del mismo tipo comparten la entrada; cargas
+ * concurrentes de la misma llave esperan una sola consulta. Este servicio no
+ * escribe esas tablas, el TTL acota el tiempo de vida ante cambios externos.
+ * Las listas guardadas son inmutables y no llevan idHierarchy ni status.
+ */
+@Component
+public class NodeTypeTemplateCache {
+  public static final String CACHE_NAME = "hierarchy.template.node-type";
+
+  private final AsyncCache<TemplateKey, List<ParameterPropertyObjectDTO>> cache;
+
+  public NodeTypeTemplateCache(MeterRegistry meterRegistry,
+                               @Qualifier("asyncExecutor") TaskExecutor asyncExecutor,
+                               @Value("${hierarchy.cache.template.node-type.max-size:2000}") long maxSize,
+                               @Value("${hierarchy.cache.template.node-type.ttl:PT10M}") Duration ttl) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .executor(asyncExecutor)
+        .buildAsync();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+  }
+
+  /**
+   * Obtiene el template, cargándolo con el loader si no está en cache.
+   * @param nodeTypeId node_type_id del nodo
+   * @param idParameter parameter_id
+   * @param loader carga del template desde la base de datos; null si la consulta falla
+   * @return template del tipo de nodo, null si no pudo cargarse
+   */
+  public List<ParameterPropertyObjectDTO> get(Integer nodeTypeId, Integer idParameter,
+                                              BiFunction<Integer, Integer, List<ParameterPropertyObjectDTO>> loader) {
+    try {
+      return cache.get(new TemplateKey(nodeTypeId, idParameter), key -> {
+        List<ParameterPropertyObjectDTO> template = loader.apply(key.nodeTypeId(), key.idParameter());
+        return template != null ? List.copyOf(template) : null;
+      }).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private record TemplateKey(Integer nodeTypeId, Integer idParameter) {
+  }
+}
@@ -0,0 +1,79 @@
+package com.smartpayment.nxt.hierarchy.parameters.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartpayment.nxt.hierarchy.parameters.dto.ElementoParameterPropertyDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Elementos de plantilla ya parseados, por property_id y hash del JSON de
+ * property_attributes. Un mismo blob se parsea una vez por proceso; si el
+ * contenido cambia cambia la llave, por lo que no se requiere invalidación.
+ * Las listas regresadas son inmutables y se comparten entre respuestas.
+ */
+@Slf4j
+@Component
+public class TemplateAttributesCache {
+  public static final String CACHE_NAME = "hierarchy.template";
+
+  private final ObjectReader reader;
+  private final Cache<TemplateKey, ParsedTemplate> cache;
+
+  public TemplateAttributesCache(ObjectMapper mapper, MeterRegistry meterRegistry,
+                                 @Value("${hierarchy.cache.template.max-size:2000}") long maxSize) {
+    this.reader = mapper.readerForListOf(ElementoParameterPropertyDTO.class)
+        .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  /**
+   * Obtiene los elementos de la plantilla, parseando el JSON solo si no está en cache.
+   * @param propertyId property_id de la plantilla
+   * @param json contenido de property_attributes
+   * @return elementos de la plantilla, lista vacía si el JSON es inválido
+   */
+  public List<ElementoParameterPropertyDTO> getElements(Integer propertyId, String json) {
+    TemplateKey key = new TemplateKey(propertyId, json.hashCode(), json.length());
+    ParsedTemplate parsed = cache.getIfPresent(key);
+    // El hash puede colisionar; se confirma con el contenido antes de reutilizar
+    if (parsed != null && parsed.json().equals(json)) {
+      return parsed.elements();
+    }
+    List<ElementoParameterPropertyDTO> elements = parse(json);
+    if (elements != null) {
+      cache.put(key, new ParsedTemplate(json, elements));
+      return elements;
+    }
+    return new ArrayList<>();
+  }
+
+  private List<ElementoParameterPropertyDTO> parse(String json) {
+    try {
+      List<ElementoParameterPropertyDTO> elements = reader.readValue(json);
+      return elements != null ? List.copyOf(elements) : List.of();
+    } catch (Exception e) {
+      log.error("Error al convertir JSON a ElementoParameterPropertyDTO. JSON: {}, Error: {}", json, e.getMessage(), e);
+      return null;
+    }
+  }
+
+  private record TemplateKey(Integer propertyId, int hash, int length) {
+  }
+
+  private record ParsedTemplate(String json, List<ElementoParameterPropertyDTO> elements) {
+  }
+}
@@ -0,0 +1,95 @@
+package com.smartpayment.nxt.hierarchy.parameters.cache;
+
+import com.smartpayment.nxt.hierarchy.parameters.repository.ParametersRepository;
+import com.smartpayment.nxt.hierarchy.parameters.util.TranslationIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ESPANOL;
+import static com.smartpayment.nxt.hierarchy.parameters.controller.ParameterController.MODULE;
+
+/**
+ * Traducciones de mensajes por módulo e idioma. Se cargan completas al arrancar
+ * y se refrescan en segundo plano; las consultas nunca van a la base de datos.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TranslationStore {
+  private static final List<String> MODULES = List.of(MODULE);
+
+  private final ParametersRepository parameterRepository;
+
+  /** módulo -> idioma -> índice de traducciones; se reemplaza completo en cada refresco */
+  private volatile Map<String, Map<String, TranslationIndex>> translations = Collections.emptyMap();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    refresh();
+  }
+
+  @Scheduled(fixedDelayString = "${hierarchy.translate.refresh-interval:PT5M}",
+      initialDelayString = "${hierarchy.translate.refresh-interval:PT5M}")
+  public void refresh() {
+    try {
+      Map<String, Map<String, TranslationIndex>> loaded = new HashMap<>();
+      parameterRepository.getAllTranslate(MODULES).forEach((module, byLanguage) -> {
+        Map<String, TranslationIndex> indexes = new HashMap<>();
+        byLanguage.forEach((language, list) -> indexes.put(language, new TranslationIndex(list)));
+        loaded.put(module, indexes);
+      });
+      translations = loaded;
+      log.info("Traducciones cargadas para módulos: {}", loaded.keySet());
+    } catch (Exception e) {
+      log.error("Error al refrescar traducciones, se conservan las anteriores. Error: {}", e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Obtiene las traducciones del módulo para el idioma solicitado.
+   * Recorre los rangos de Accept-Language en orden de peso, primero la etiqueta
+   * completa (es-mx) y después el idioma base (es); al final usa español.
+   * @param module módulo de los mensajes
+   * @param acceptLanguage valor del header Accept-Language
+   * @return índice de traducciones, vacío si el módulo no tiene traducciones cargadas
+   */
+  public TranslationIndex getTranslations(String module, String acceptLanguage) {
+    Map<String, TranslationIndex> byLanguage = translations.get(module);
+    if (byLanguage == null || byLanguage.isEmpty()) {
+      return TranslationIndex.EMPTY;
+    }
+    String language = resolveLanguage(byLanguage.keySet(), acceptLanguage);
+    return language != null ? byLanguage.get(language) : TranslationIndex.EMPTY;
+  }
+
+  static String resolveLanguage(Set<String> available, String acceptLanguage) {
+    if (acceptLanguage != null && !acceptLanguage.isBlank()) {
+      try {
+        for (Locale.LanguageRange range : Locale.LanguageRange.parse(acceptLanguage)) {
+          String tag = range.getRange().toLowerCase(Locale.ROOT);
+          if (available.contains(tag)) {
+            return tag;
+          }
+          int dash = tag.indexOf('-');
+          if (dash > 0 && available.contains(tag.substring(0, dash))) {
+            return tag.substring(0, dash);
+          }
+        }
+      } catch (IllegalArgumentException e) {
+        log.debug("Accept-Language inválido: {}", acceptLanguage);
+      }
+    }
+    return available.contains(ESPANOL) ? ESPANOL : null;
+  }
+}
@@ -1,19 +1,50 @@
 package com.smartpayment.nxt.hierarchy.parameters.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+/**
+ * Ejecutor de los métodos @Async. Con spring.threads.virtual.enabled=true (también
+ * usado por Tomcat) cada tarea corre en un hilo virtual y el límite real de
+ * concurrencia lo pone el pool de conexiones; con false se usa el pool fijo
+ * anterior, para poder comparar ambos modelos bajo carga.
+ */
+@Slf4j
 @Configuration
 public class AsyncConfig {
 
+  @Value("${spring.threads.virtual.enabled:false}")
+  private boolean virtualThreads;
+  /** Máximo de tareas simultáneas en hilos virtuales; -1 sin límite */
+  @Value("${hierarchy.async.virtual.concurrency-limit:-1}")
+  private int concurrencyLimit;
+  @Value("${hierarchy.async.pool.core-size:10}")
+  private int corePoolSize;
+  @Value("${hierarchy.async.pool.max-size:20}")
+  private int maxPoolSize;
+  @Value("${hierarchy.async.pool.queue-capacity:100}")
+  private int queueCapacity;
+
   @Bean(name = "asyncExecutor")
   public TaskExecutor asyncExecutor() {
+    if (virtualThreads) {
+      log.info("Ejecutor asíncrono con hilos virtuales, límite de concurrencia: {}", concurrencyLimit);
+      SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("AsyncHierarchy-");
+      executor.setVirtualThreads(true);
+      executor.setConcurrencyLimit(concurrencyLimit);
+      executor.setTaskTerminationTimeout(30_000);
+      return executor;
+    }
+    log.info("Ejecutor asíncrono con pool fijo, core: {}, max: {}, cola: {}", corePoolSize, maxPoolSize, queueCapacity);
     ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-    executor.setCorePoolSize(10);
-    executor.setMaxPoolSize(20);
-    executor.setQueueCapacity(100);
+    executor.setCorePoolSize(corePoolSize);
+    executor.setMaxPoolSize(maxPoolSize);
+    executor.setQueueCapacity(queueCapacity);
     executor.setThreadNamePrefix("AsyncHierarchy-");
     executor.initialize();
     return executor;
@@ -0,0 +1,43 @@
+package com.smartpayment.nxt.hierarchy.parameters.config;
+
+import com.smartpayment.nxt.hierarchy.parameters.metrics.InstrumentedJdbcTemplate;
+import com.smartpayment.nxt.hierarchy.parameters.metrics.QueryMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Map;
+
+/**
+ * Envuelve los NamedParameterJdbcTemplate de escritura y lectura (definidos en
+ * nxt-msa-commons) en InstrumentedJdbcTemplate, para medir cada sentencia sin
+ * tocar el repositorio. QueryMetrics se resuelve de forma perezosa: un
+ * BeanPostProcessor que dependa del MeterRegistry lo crearía antes de que
+ * Spring Boot lo configure.
+ */
+@Slf4j
+@Configuration
+public class QueryMetricsConfig {
+  private static final Map<String, String> DATASOURCES = Map.of(
+      "primaryJdbcTemplate", "primary",
+      "readOnlyJdbcTemplate", "readonly");
+
+  @Bean
+  public static BeanPostProcessor queryMetricsPostProcessor(ObjectProvider<QueryMetrics> queryMetrics) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        String datasource = DATASOURCES.get(beanName);
+        if (datasource == null || !(bean instanceof NamedParameterJdbcTemplate template)
+            || bean instanceof InstrumentedJdbcTemplate) {
+          return bean;
+        }
+        log.info("Métricas por consulta habilitadas para {}", beanName);
+        return new InstrumentedJdbcTemplate(template.getJdbcOperations(), datasource, queryMetrics::getObject);
+      }
+    };
+  }
+}
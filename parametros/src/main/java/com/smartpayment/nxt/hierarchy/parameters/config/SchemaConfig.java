@@ -0,0 +1,55 @@
+package com.smartpayment.nxt.hierarchy.parameters.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Tablas propias del servicio (db/*.sql: versión de parámetros y trabajos de propagación).
+ * Los scripts son idempotentes (create/alter ... if not exists) y se aplican como paso de
+ * operación, en orden de nombre y con un usuario con permisos de DDL, antes de desplegar la
+ * versión que los usa: el usuario de la aplicación no debe necesitar DDL ni tomar locks de
+ * esquema en cada arranque. Con hierarchy.schema.init.enabled=true (ambientes locales o de
+ * prueba) se ejecutan en el primario al arrancar, antes que los componentes que usan las tablas.
+ */
+@Slf4j
+@Configuration
+public class SchemaConfig {
+  private final NamedParameterJdbcTemplate primaryJdbcTemplate;
+  private final boolean enabled;
+  private final String locations;
+
+  public SchemaConfig(@Qualifier("primaryJdbcTemplate") NamedParameterJdbcTemplate primaryJdbcTemplate,
+                      @Value("${hierarchy.schema.init.enabled:false}") boolean enabled,
+                      @Value("${hierarchy.schema.init.locations:classpath:db/*.sql}") String locations) {
+    this.primaryJdbcTemplate = primaryJdbcTemplate;
+    this.enabled = enabled;
+    this.locations = locations;
+  }
+
+  @PostConstruct
+  public void initialize() throws IOException {
+    if (!enabled) {
+      log.info("Inicialización del esquema deshabilitada, los scripts de {} se aplican aparte", locations);
+      return;
+    }
+    Resource[] scripts = new PathMatchingResourcePatternResolver().getResources(locations);
+    Arrays.sort(scripts, Comparator.comparing(Resource::getFilename, Comparator.nullsLast(Comparator.naturalOrder())));
+    ResourceDatabasePopulator populator = new ResourceDatabasePopulator(scripts);
+    populator.setSqlScriptEncoding("UTF-8");
+    // Un error detiene el arranque: sin las tablas las escrituras fallarían al subir la versión
+    DatabasePopulatorUtils.execute(populator, primaryJdbcTemplate.getJdbcTemplate().getDataSource());
+    log.info("Esquema inicializado con {} scripts de {}", scripts.length, locations);
+  }
+}
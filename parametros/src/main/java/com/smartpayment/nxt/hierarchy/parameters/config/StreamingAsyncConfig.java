@@ -0,0 +1,76 @@
+package com.smartpayment.nxt.hierarchy.parameters.config;
+
+import jakarta.servlet.ServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Timeouts asíncronos de los handlers del controlador. Todos responden CompletableFuture, por
+ * lo que sin un valor propio tomarían el del contenedor (30 s en Tomcat) y cortarían /spread,
+ * /spread/diff y /bulk, que antes bloqueaban sin límite: hierarchy.async.request-timeout es el
+ * timeout por defecto (PT0S o negativo, sin timeout). Los endpoints que escriben NDJSON
+ * (/export, /catalogs) marcan la petición con markStreaming y cada fase asíncrona (el
+ * CompletableFuture y luego el StreamingResponseBody) toma hierarchy.streaming.timeout antes
+ * de que inicie el procesamiento asíncrono del servlet.
+ */
+@Slf4j
+@Configuration
+public class StreamingAsyncConfig implements WebMvcConfigurer {
+  private static final String STREAMING_ATTRIBUTE = StreamingAsyncConfig.class.getName() + ".STREAMING";
+
+  /** AsyncContext sin timeout */
+  static final long NO_TIMEOUT = -1L;
+
+  private final long defaultTimeoutMillis;
+  private final long timeoutMillis;
+
+  public StreamingAsyncConfig(@Value("${hierarchy.async.request-timeout:PT0S}") Duration defaultTimeout,
+                              @Value("${hierarchy.streaming.timeout:PT10M}") Duration timeout) {
+    this.defaultTimeoutMillis = defaultTimeout.isNegative() || defaultTimeout.isZero() ? NO_TIMEOUT : defaultTimeout.toMillis();
+    this.timeoutMillis = timeout.toMillis();
+  }
+
+  /**
+   * Aplica el timeout de streaming a la petición en curso.
+   */
+  public static void markStreaming(ServletRequest request) {
+    request.setAttribute(STREAMING_ATTRIBUTE, Boolean.TRUE);
+  }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setDefaultTimeout(defaultTimeoutMillis);
+    configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+      @Override
+      public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        applyTimeout(request);
+      }
+    });
+    configurer.registerDeferredResultInterceptors(new DeferredResultProcessingInterceptor() {
+      @Override
+      public <T> void beforeConcurrentHandling(NativeWebRequest request, DeferredResult<T> deferredResult) {
+        applyTimeout(request);
+      }
+    });
+  }
+
+  private void applyTimeout(NativeWebRequest request) {
+    if (request instanceof AsyncWebRequest asyncWebRequest
+        && Boolean.TRUE.equals(request.getAttribute(STREAMING_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST))) {
+      log.debug("Timeout asíncrono de streaming: {} ms", timeoutMillis);
+      asyncWebRequest.setTimeout(timeoutMillis);
+    }
+  }
+}
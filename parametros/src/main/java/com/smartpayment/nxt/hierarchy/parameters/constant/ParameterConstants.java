@@ -56,8 +56,13 @@ public final class ParameterConstants {
   public static final String ID_PARAMETER = "idParameter";
   public static final String ATTRIBUTES = "attributes";
   public static final String ID_HIERARCHY = "idHierarchy";
+  public static final String NODE_TYPE = "nodeType";
+  public static final String ID_HIERARCHIES = "idHierarchies";
+  /** hierarchy_id que representa a todos los nodos en la versión de parámetros y en las notificaciones de cambio */
+  public static final Integer ALL_NODES = 0;
   public static final String PARAM_ID = "id";
   public static final String PAGE = "page";
   public static final String SIZE = "size";
+  public static final String AFTER = "after";
   public static final String ESPANOL = "es";
 }
@@ -53,9 +53,44 @@ public class ParameterQueries {
                   and dt.parameter_id = :idSystem
                   and dt.property_id = :idProperty
       """;
+  /**
+   * Igual que CALL_GET_PARAMETERS_HIERARCHY pero regresa en cada fila el total de
+   * registros, para obtener pagina y total en una sola consulta
+   */
+  public static final String CALL_GET_PARAMETERS_HIERARCHY_WITH_TOTAL = """
+              select dt.hierarchy_id idHierarchy,
+                  dt.parameter_id idSystem,
+                  dt.property_id idProperty,
+                  hierarchy_property_id id,
+                  hierarchy_attributes,
+                  prop.hierarchy_parameter_id idParamater,
+                  prop.status,
+                  coalesce(dt.propagate_to_children,2) spread,
+                  count(1) over () total_elements
+                  from
+                  hierarchy.bt_hierarchy_parameters dt
+                  inner join hierarchy.bt_hierarchy_parameters_properties prop
+                  on dt.hierarchy_parameter_id = prop.hierarchy_parameter_id
+                  where  dt.hierarchy_id = :idHierarchy
+                  and dt.parameter_id = :idSystem
+                  and dt.property_id = :idProperty
+      """;
+  /**
+   * Paginacion sin total: pide un registro extra para saber si existe pagina siguiente
+   */
+  public static final String HIERARCHY_PROPERTY_ID_PAGINATION_LOOKAHEAD= """
+                  ORDER BY hierarchy_property_id  LIMIT (:size + 1) OFFSET (:size*(:page-1));
+      """;
   public static final String HIERARCHY_PROPERTY_ID_PAGINATION= """
                   ORDER BY hierarchy_property_id  LIMIT :size OFFSET (:size*(:page-1));
       """;
+  /**
+   * Paginacion por cursor: continua despues del ultimo hierarchy_property_id entregado
+   */
+  public static final String HIERARCHY_PROPERTY_ID_KEYSET= """
+                  and prop.hierarchy_property_id > :after
+                  ORDER BY prop.hierarchy_property_id  LIMIT :size;
+      """;
   /**
    * Obtiene la informacion del template
    */
@@ -72,6 +107,28 @@ public class ParameterQueries {
                     where bh.hierarchy_id  = :idHierarchy
                     and par.parameter_id  = :idParameter
       """;
+  /**
+   * Obtiene la informacion del template para un tipo de nodo; no depende del hierarchy_id
+   */
+  public static final String CALL_GET_PARAMETERS_TEMPLATE_BY_NODE_TYPE = """
+              select
+                    par.parameter_id idSystem,
+                    btpp.property_id idParameter,
+                    btpp.property_attributes ::text
+                    FROM  hierarchy.bt_system_parameters par
+                    inner join hierarchy.bt_parameter_properties btpp on   btpp.parameter_id = par.parameter_id
+                    where :nodeType = ANY(par.applicable_to_node_type)
+                    and par.parameter_id  = :idParameter
+      """;
+  /**
+   * Obtiene el tipo y estatus de un nodo
+   */
+  public static final String GET_HIERARCHY_NODE = """
+              select h.hierarchy_id idHierarchy, h.node_type_id nodeTypeId, h.hierarchy_status status
+                  from
+                  hierarchy.bt_hierarchy h
+                  where  h.hierarchy_id = :idHierarchy
+      """;
   /**
    * Obtiene la relacion con hierarchy parameter
    */
@@ -84,6 +141,29 @@ public class ParameterQueries {
               where pp.property_id = :idProperty
               and pp.parameter_id = :idSystem
       """;
+  /**
+   * Obtiene la relacion con hierarchy parameter de varios (nodo, parametro, propiedad) a la vez
+   */
+  public static final String GET_ID_HIERARCHY_PARAMETERS_BULK = """
+              select k.hierarchy_id idHierarchy, k.parameter_id idSystem, k.property_id idProperty,
+                  dt.hierarchy_parameter_id
+              from unnest(:idHierarchies::int[], :idSystems::int[], :idProperties::int[])
+                  as k(hierarchy_id, parameter_id, property_id)
+              inner join hierarchy.bt_parameter_properties pp on pp.property_id = k.property_id
+              and pp.parameter_id = k.parameter_id
+              left join hierarchy.bt_hierarchy_parameters dt on dt.parameter_id  = pp.parameter_id
+              and dt.property_id = pp.property_id
+              and dt.hierarchy_id = k.hierarchy_id
+      """;
+  /**
+   * Obtiene el status de varios nodos
+   */
+  public static final String GET_STATUS_HIERARCHIES = """
+              select h.hierarchy_id, h.hierarchy_status status
+                  from
+                  hierarchy.bt_hierarchy h
+                  where  h.hierarchy_id in (:idHierarchies)
+      """;
   /**
    * insert hierarchy parameters
    */
@@ -115,13 +195,15 @@ public class ParameterQueries {
               DELETE FROM hierarchy.bt_hierarchy_parameters_properties   where hierarchy_property_id=:id;
       """;
     /**
-     * Modifica de propagate_to_children a un estatus
+     * Modifica de propagate_to_children a un estatus. Solo escribe las filas que aun no lo tienen:
+     * ediciones seguidas del mismo (nodo, parametro) no reescriben ni bloquean filas ya marcadas
      */
     public static final String UPDATE_BT_HIERARCHY_PARAMETER_PROPAGE = """
         update  hierarchy.bt_hierarchy_parameters
             set propagate_to_children=:status, updated_at=now()
             where hierarchy_id= :idHierarchy
             and (:idSystem IS NULL OR parameter_id= :idSystem)
+            and propagate_to_children is distinct from :status
         """;
   /**
    * Inserta los prpiedad del parametro
@@ -132,6 +214,14 @@ public class ParameterQueries {
       VALUES(:idParameter, :attributes::json, :status, now(), now())
             RETURNING hierarchy_property_id
       """;
+  /**
+   * Inserta la propiedad del parametro en lote; el id generado se obtiene por getGeneratedKeys
+   */
+  public static final String INSERT_ID_HIERARCHY_PARAMETERS_PROPERTIES_BATCH = """
+      INSERT INTO hierarchy.bt_hierarchy_parameters_properties
+      (hierarchy_parameter_id, hierarchy_attributes, status, created_at, updated_at)
+      VALUES(:idParameter, :attributes::json, :status, now(), now())
+      """;
   public static final String GET_HIERARCHY_TRANSLATE_PARAMETERS  = """
       select  c.code_message  , c.message
       from catalogs.lkp_response_messages m
@@ -140,6 +230,16 @@ public class ParameterQueries {
       where m.category  = :category
       and language_code= :language
       """;
+  /**
+   * Obtiene todas las traducciones de los modulos indicados, en todos los idiomas
+   */
+  public static final String GET_ALL_HIERARCHY_TRANSLATE_PARAMETERS  = """
+      select  m.category, c.language_code, c.code_message, c.message
+      from catalogs.lkp_response_messages m
+      inner join  catalogs.lkp_response_message_translations c
+      on c.code_message= m.code_message
+      where m.category in (:categories)
+      """;
 
   public static final String GET_GROUPED_PARAMETERS = """
       SELECT
@@ -168,6 +268,37 @@ public class ParameterQueries {
           par.parameter_name
       """;
 
+  /**
+   * Igual que GET_GROUPED_PARAMETERS para varios nodos en una sola consulta, agrupados por nodo
+   */
+  public static final String GET_GROUPED_PARAMETERS_BATCH = """
+      SELECT
+          li.category_name,
+          par.parameter_name,
+          par.parameter_id idSystem,
+          par.parameter_description,
+          li.category_description,
+          bh.hierarchy_id idhierarchy,
+          btpp.property_id idproperty,
+          coalesce(bthp.status,2) status,
+          coalesce(bthp.hierarchy_parameter_id,0) idParameter,
+          max_properties,
+          coalesce(bthp.propagate_to_children,2) spread
+          FROM  hierarchy.bt_system_parameters par
+          inner join hierarchy.lkp_parameter_categories  li on li.category_id=par.category_id
+          inner join hierarchy.bt_hierarchy bh on bh.node_type_id = ANY(par.applicable_to_node_type)
+          inner join hierarchy.bt_parameter_properties btpp on   btpp.parameter_id = par.parameter_id
+          left  join hierarchy.bt_hierarchy_parameters bthp
+          on bthp.parameter_id =  par.parameter_id
+          and bthp.property_id  =  btpp.property_id
+          and bthp.hierarchy_id =  bh.hierarchy_id
+          where bh.hierarchy_id = any(:idHierarchies::int[])
+          and   par.status =:status
+          order by bh.hierarchy_id,
+          li.category_name,
+          par.parameter_name
+      """;
+
   public static final String COUNT_ELEMENTS_SPREAD= """
       select count(1) total
       from hierarchy.bt_hierarchy bh
@@ -279,6 +410,297 @@ public static final String DELETE_HIERARCHY_PARAMETERS_CHILD="""
       WHERE hierarchy_parameter_id IN (SELECT hierarchy_parameter_id FROM parameters_to_delete);
 """;
 
+  /**
+   * Restringe las sentencias de propagacion a los descendientes de un nivel de hierarchy_path
+   */
+  public static final String CHILD_LEVEL_FILTER = """
+      and nlevel(bh_child.hierarchy_path) = :level
+      """;
+
+  /**
+   * Igual que DELETE_HIERARCHY_PARAMETERS_CHILD pero solo para los descendientes de un nivel
+   */
+  public static final String DELETE_HIERARCHY_PARAMETERS_CHILD_LEVEL="""
+  WITH parameters_to_delete AS (
+          SELECT   bthp.hierarchy_parameter_id
+                            FROM hierarchy.bt_hierarchy bh
+                            INNER JOIN hierarchy.bt_hierarchy bh_child
+                            ON bh.hierarchy_path @> bh_child.hierarchy_path
+                            AND bh_child.hierarchy_id != bh.hierarchy_id
+                            INNER JOIN hierarchy.bt_system_parameters par
+                            ON bh_child.node_type_id = ANY(par.applicable_to_node_type)
+                            inner join hierarchy.bt_hierarchy_parameters prParent
+                            on  bh.hierarchy_id = prParent.hierarchy_id
+                            and prParent.parameter_id  = par.parameter_id
+                    INNER JOIN hierarchy.bt_hierarchy_parameters bthp
+                    ON bthp.parameter_id = par.parameter_id
+                    AND bthp.hierarchy_id = bh_child.hierarchy_id
+                    WHERE bh.hierarchy_id = :idHierarchy
+                    and nlevel(bh_child.hierarchy_path) = :level
+                    and (:idSystem IS NULL OR par.parameter_id= :idSystem)
+                    and prParent.propagate_to_children=1
+                    AND par.status = :status
+    ),
+      delete_properties AS (
+          DELETE FROM hierarchy.bt_hierarchy_parameters_properties
+              WHERE hierarchy_parameter_id IN (SELECT hierarchy_parameter_id FROM parameters_to_delete)
+    )
+      DELETE FROM hierarchy.bt_hierarchy_parameters
+      WHERE hierarchy_parameter_id IN (SELECT hierarchy_parameter_id FROM parameters_to_delete);
+""";
+
+  /**
+   * Nivel del nodo y nivel mas profundo de sus descendientes
+   */
+  public static final String GET_SPREAD_LEVELS="""
+      select nlevel(bh.hierarchy_path) root_level,
+          coalesce(max(nlevel(bh_child.hierarchy_path)), nlevel(bh.hierarchy_path)) max_level
+      from hierarchy.bt_hierarchy bh
+      left join hierarchy.bt_hierarchy bh_child
+        on bh.hierarchy_path @> bh_child.hierarchy_path
+        and bh_child.hierarchy_id != bh.hierarchy_id
+      where bh.hierarchy_id = :idHierarchy
+      group by bh.hierarchy_path
+""";
+
+  public static final String INSERT_SPREAD_JOB="""
+      insert into hierarchy.bt_spread_jobs
+      (job_id, hierarchy_id, parameter_id, status, root_level, max_level, last_level,
+       deleted_rows, inserted_parameters, inserted_properties, created_at, updated_at)
+      values(:jobId, :idHierarchy, :idSystem, :status, :rootLevel, :maxLevel, :rootLevel, 0, 0, 0, now(), now())
+""";
+
+  public static final String GET_SPREAD_JOB="""
+      select job_id, hierarchy_id, parameter_id, status, root_level, max_level, last_level,
+          deleted_rows, inserted_parameters, inserted_properties, error_message, created_at, updated_at
+      from hierarchy.bt_spread_jobs
+      where job_id = :jobId
+""";
+
+  /**
+   * Trabajos sin terminar de esta instancia (reiniciada) o cuyo lease no se ha renovado recientemente (instancia caida)
+   */
+  public static final String GET_RESUMABLE_SPREAD_JOBS="""
+      select job_id, hierarchy_id, parameter_id, status, root_level, max_level, last_level,
+          deleted_rows, inserted_parameters, inserted_properties, error_message, created_at, updated_at
+      from hierarchy.bt_spread_jobs
+      where status in ('PENDING', 'RUNNING')
+      and (owner = :owner or updated_at < now() - (:staleSeconds * interval '1 second'))
+      order by created_at
+""";
+
+  /**
+   * Toma el trabajo si esta pendiente, si ya era de esta instancia o si nadie renovo su lease en el intervalo indicado
+   */
+  public static final String CLAIM_SPREAD_JOB="""
+      update hierarchy.bt_spread_jobs
+      set status = 'RUNNING', owner = :owner, updated_at = now()
+      where job_id = :jobId
+      and status in ('PENDING', 'RUNNING')
+      and (status = 'PENDING' or owner = :owner or updated_at < now() - (:staleSeconds * interval '1 second'))
+""";
+
+  /**
+   * Renueva el lease del trabajo mientras corre; 0 filas indica que otra instancia lo tomo
+   */
+  public static final String HEARTBEAT_SPREAD_JOB="""
+      update hierarchy.bt_spread_jobs
+      set updated_at = now()
+      where job_id = :jobId
+      and owner = :owner
+      and status = 'RUNNING'
+""";
+
+  /**
+   * Primera sentencia de la transaccion de cada nivel: bloquea la fila del trabajo si sigue siendo
+   * de esta instancia, de modo que otra no pueda tomarlo hasta que el nivel confirme o se revierta
+   */
+  public static final String LOCK_SPREAD_JOB="""
+      select last_level
+      from hierarchy.bt_spread_jobs
+      where job_id = :jobId
+      and owner = :owner
+      and status = 'RUNNING'
+      for update
+""";
+
+  /**
+   * clock_timestamp y no now(): dentro de la transaccion del nivel now() es la hora de inicio
+   */
+  public static final String UPDATE_SPREAD_JOB_PROGRESS="""
+      update hierarchy.bt_spread_jobs
+      set last_level = :lastLevel,
+          deleted_rows = deleted_rows + :deletedRows,
+          inserted_parameters = inserted_parameters + :insertedParameters,
+          inserted_properties = inserted_properties + :insertedProperties,
+          updated_at = clock_timestamp()
+      where job_id = :jobId
+      and owner = :owner
+""";
+
+  public static final String UPDATE_SPREAD_JOB_STATUS="""
+      update hierarchy.bt_spread_jobs
+      set status = :status, error_message = :errorMessage, updated_at = now()
+      where job_id = :jobId
+      and owner = :owner
+""";
+
+  /**
+   * Filas que cada descendiente debe tener segun el nodo que propaga: una por
+   * (hierarchy_id, parameter_id, property_id) con el status del padre
+   */
+  private static final String SPREAD_DIFF_DESIRED = """
+      with desired as (
+        select distinct on (bh_child.hierarchy_id, par.parameter_id, bthp.property_id)
+          bh_child.hierarchy_id, par.parameter_id, bthp.property_id, bthp.status,
+          bthp.hierarchy_parameter_id parent_hierarchy_parameter_id
+        from hierarchy.bt_hierarchy bh
+        inner join hierarchy.bt_hierarchy bh_child
+          on bh.hierarchy_path @> bh_child.hierarchy_path
+          and bh_child.hierarchy_id != bh.hierarchy_id
+        inner join hierarchy.bt_system_parameters par
+          on bh_child.node_type_id = ANY(par.applicable_to_node_type)
+        inner join hierarchy.bt_hierarchy_parameters bthp
+          on bthp.parameter_id = par.parameter_id
+          and bthp.hierarchy_id = bh.hierarchy_id
+        inner join hierarchy.bt_parameter_properties btpp
+          on btpp.parameter_id = par.parameter_id
+          and btpp.property_id = bthp.property_id
+        where bh.hierarchy_id = :idHierarchy
+        and bthp.propagate_to_children = 1
+        and par.status = :status
+        and (:idSystem IS NULL OR par.parameter_id = :idSystem)
+        order by bh_child.hierarchy_id, par.parameter_id, bthp.property_id, bthp.hierarchy_parameter_id
+      )
+      """;
+
+  /**
+   * Filas actuales de los descendientes para los parametros propagados; rn > 1 son duplicados
+   */
+  private static final String SPREAD_DIFF_CURRENT = """
+      , current_rows as (
+        select child.hierarchy_parameter_id, child.hierarchy_id, child.parameter_id, child.property_id,
+          child.status, child.propagate_to_children,
+          row_number() over (partition by child.hierarchy_id, child.parameter_id, child.property_id
+                             order by child.hierarchy_parameter_id) rn
+        from hierarchy.bt_hierarchy_parameters child
+        where (child.hierarchy_id, child.parameter_id) in (select hierarchy_id, parameter_id from desired)
+      )
+      """;
+
+  /**
+   * Propiedades del padre (source) y del descendiente (target) emparejadas por posicion
+   * dentro de cada hierarchy_parameter_id del descendiente
+   */
+  private static final String SPREAD_DIFF_PROPERTIES = """
+      , pairs as (
+        select child.hierarchy_parameter_id, d.parent_hierarchy_parameter_id
+        from desired d
+        inner join hierarchy.bt_hierarchy_parameters child
+          on child.hierarchy_id = d.hierarchy_id
+          and child.parameter_id = d.parameter_id
+          and child.property_id = d.property_id
+      ),
+      source_props as (
+        select p.hierarchy_parameter_id, pr.hierarchy_attributes, pr.status, pr.property_code,
+          row_number() over (partition by p.hierarchy_parameter_id order by pr.hierarchy_property_id) rn
+        from pairs p
+        inner join hierarchy.bt_hierarchy_parameters_properties pr
+          on pr.hierarchy_parameter_id = p.parent_hierarchy_parameter_id
+        where pr.hierarchy_attributes is not null
+        and pr.status is not null
+      ),
+      target_props as (
+        select pr.hierarchy_property_id, pr.hierarchy_parameter_id, pr.hierarchy_attributes, pr.status, pr.property_code,
+          row_number() over (partition by pr.hierarchy_parameter_id order by pr.hierarchy_property_id) rn
+        from pairs p
+        inner join hierarchy.bt_hierarchy_parameters_properties pr
+          on pr.hierarchy_parameter_id = p.hierarchy_parameter_id
+      )
+      """;
+
+  /**
+   * Elimina las filas de los descendientes que el padre ya no propaga (y duplicados) con sus propiedades
+   */
+  public static final String SPREAD_DIFF_DELETE_PARAMETERS = SPREAD_DIFF_DESIRED + SPREAD_DIFF_CURRENT + """
+      , to_delete as (
+        select c.hierarchy_parameter_id
+        from current_rows c
+        where c.rn > 1
+        or not exists (select 1 from desired d
+                       where d.hierarchy_id = c.hierarchy_id
+                       and d.parameter_id = c.parameter_id
+                       and d.property_id = c.property_id)
+      ),
+      delete_properties as (
+        delete from hierarchy.bt_hierarchy_parameters_properties
+        where hierarchy_parameter_id in (select hierarchy_parameter_id from to_delete)
+      )
+      delete from hierarchy.bt_hierarchy_parameters
+      where hierarchy_parameter_id in (select hierarchy_parameter_id from to_delete)
+      """;
+
+  /**
+   * Actualiza solo las filas de los descendientes cuyo status o bandera de propagacion difiere
+   */
+  public static final String SPREAD_DIFF_UPDATE_PARAMETERS = SPREAD_DIFF_DESIRED + SPREAD_DIFF_CURRENT + """
+      update hierarchy.bt_hierarchy_parameters bthp
+      set status = d.status, propagate_to_children = 2, updated_at = now()
+      from current_rows c
+      inner join desired d
+        on d.hierarchy_id = c.hierarchy_id
+        and d.parameter_id = c.parameter_id
+        and d.property_id = c.property_id
+      where bthp.hierarchy_parameter_id = c.hierarchy_parameter_id
+      and c.rn = 1
+      and (c.status is distinct from d.status or c.propagate_to_children is distinct from 2)
+      """;
+
+  public static final String SPREAD_DIFF_INSERT_PARAMETERS = SPREAD_DIFF_DESIRED + """
+      insert into hierarchy.bt_hierarchy_parameters
+      (hierarchy_id, parameter_id, property_id, created_at, status, propagate_to_children)
+      select d.hierarchy_id, d.parameter_id, d.property_id, now(), d.status, 2
+      from desired d
+      where not exists (select 1 from hierarchy.bt_hierarchy_parameters child
+                        where child.hierarchy_id = d.hierarchy_id
+                        and child.parameter_id = d.parameter_id
+                        and child.property_id = d.property_id)
+      """;
+
+  public static final String SPREAD_DIFF_UPDATE_PROPERTIES = SPREAD_DIFF_DESIRED + SPREAD_DIFF_PROPERTIES + """
+      update hierarchy.bt_hierarchy_parameters_properties prop
+      set hierarchy_attributes = s.hierarchy_attributes, status = s.status,
+          property_code = s.property_code, updated_at = now()
+      from target_props t
+      inner join source_props s
+        on s.hierarchy_parameter_id = t.hierarchy_parameter_id
+        and s.rn = t.rn
+      where prop.hierarchy_property_id = t.hierarchy_property_id
+      and (t.hierarchy_attributes::jsonb is distinct from s.hierarchy_attributes::jsonb
+           or t.status is distinct from s.status
+           or t.property_code is distinct from s.property_code)
+      """;
+
+  public static final String SPREAD_DIFF_DELETE_PROPERTIES = SPREAD_DIFF_DESIRED + SPREAD_DIFF_PROPERTIES + """
+      delete from hierarchy.bt_hierarchy_parameters_properties
+      where hierarchy_property_id in (
+        select t.hierarchy_property_id
+        from target_props t
+        where not exists (select 1 from source_props s
+                          where s.hierarchy_parameter_id = t.hierarchy_parameter_id
+                          and s.rn = t.rn))
+      """;
+
+  public static final String SPREAD_DIFF_INSERT_PROPERTIES = SPREAD_DIFF_DESIRED + SPREAD_DIFF_PROPERTIES + """
+      insert into hierarchy.bt_hierarchy_parameters_properties
+      (hierarchy_parameter_id, hierarchy_attributes, created_at, status, property_code)
+      select s.hierarchy_parameter_id, s.hierarchy_attributes, now(), s.status, s.property_code
+      from source_props s
+      where not exists (select 1 from target_props t
+                        where t.hierarchy_parameter_id = s.hierarchy_parameter_id
+                        and t.rn = s.rn)
+      """;
+
 public static final String DELETE_HIERARCHY_PARAMETERS_EXTENDS="""
 WITH parameters_to_delete AS (
     SELECT DISTINCT bthp.hierarchy_parameter_id
@@ -344,6 +766,29 @@ public static final String INSERT_HIERARCHY_PARAMETERS_EXTENDS="""
     and   par.status =:status;
 """;
 
+  /**
+   * Exporta parametros y propiedades del nodo y todos sus descendientes
+   */
+  public static final String EXPORT_PARAMETERS_SUBTREE = """
+      select bh.hierarchy_id idHierarchy,
+          dt.parameter_id idSystem,
+          dt.property_id idProperty,
+          dt.hierarchy_parameter_id idParamater,
+          coalesce(dt.propagate_to_children,2) spread,
+          prop.hierarchy_property_id id,
+          prop.hierarchy_attributes,
+          coalesce(prop.status, dt.status) status
+          from hierarchy.bt_hierarchy root
+          inner join hierarchy.bt_hierarchy bh
+            on root.hierarchy_path @> bh.hierarchy_path
+          inner join hierarchy.bt_hierarchy_parameters dt
+            on dt.hierarchy_id = bh.hierarchy_id
+          left join hierarchy.bt_hierarchy_parameters_properties prop
+            on prop.hierarchy_parameter_id = dt.hierarchy_parameter_id
+          where root.hierarchy_id = :idHierarchy
+          order by bh.hierarchy_id, dt.hierarchy_parameter_id, prop.hierarchy_property_id
+      """;
+
   public static final String GET_ACCESS_CONTROLLER = """
       SELECT  count(1) as total
           FROM login.lkp_policies lp
@@ -359,5 +804,82 @@ public static final String INSERT_HIERARCHY_PARAMETERS_EXTENDS="""
             and lp.type = :activityId
             and lp.status = :statusProfileId
   """;
+  /**
+   * Posición actual del WAL en el primario, después de confirmar una escritura
+   */
+  public static final String GET_PRIMARY_WAL_LSN = """
+          select pg_current_wal_lsn()::text lsn
+  """;
+  /**
+   * Posición del WAL ya aplicada por la réplica y su atraso en segundos; nulos si no es réplica
+   */
+  public static final String GET_REPLICA_REPLAY_LSN = """
+          select pg_last_wal_replay_lsn()::text lsn,
+              extract(epoch from now() - pg_last_xact_replay_timestamp()) lag_seconds
+  """;
+  /**
+   * Nodos de la jerarquia con su padre, tipo y status para el indice en memoria;
+   * con :idHierarchy solo los creados despues de ese id
+   */
+  public static final String GET_HIERARCHY_TREE = """
+      select h.hierarchy_id, coalesce(h.hierarchy_parent_id, 0) parent_id, h.node_type_id, h.hierarchy_status status
+          from hierarchy.bt_hierarchy h
+          where (:idHierarchy is null or h.hierarchy_id > :idHierarchy)
+      """;
+  /**
+   * Ancestros del nodo incluyendo al propio nodo, del mas cercano a la raiz
+   */
+  public static final String GET_HIERARCHY_ANCESTORS = """
+      select a.hierarchy_id
+          from hierarchy.bt_hierarchy h
+          inner join hierarchy.bt_hierarchy a
+            on a.hierarchy_path @> h.hierarchy_path
+          where h.hierarchy_id = :idHierarchy
+          order by nlevel(a.hierarchy_path) desc
+      """;
+  /**
+   * Parametros definidos en cada nodo, con el status del parametro y solo sus propiedades activas
+   */
+  public static final String GET_PARAMETER_DEFINITIONS = """
+      select dt.hierarchy_id idHierarchy,
+          dt.parameter_id idSystem,
+          dt.property_id idProperty,
+          coalesce(dt.status, :status) parameter_status,
+          prop.hierarchy_property_id id,
+          prop.hierarchy_attributes,
+          dt.hierarchy_parameter_id idParamater,
+          prop.status,
+          coalesce(dt.propagate_to_children,2) spread
+          from hierarchy.bt_hierarchy_parameters dt
+          left join hierarchy.bt_hierarchy_parameters_properties prop
+            on dt.hierarchy_parameter_id = prop.hierarchy_parameter_id
+            and prop.status = :status
+          where dt.hierarchy_id = any(:idHierarchies::int[])
+          order by dt.hierarchy_id, dt.parameter_id, dt.property_id, prop.hierarchy_property_id
+      """;
+  /**
+   * Incrementa la version de parametros del nodo; hierarchy_id 0 es la version de todos los nodos
+   */
+  public static final String BUMP_PARAMETERS_VERSION = """
+      insert into hierarchy.bt_hierarchy_parameters_version as v (hierarchy_id, version)
+          values (:idHierarchy, 1)
+          on conflict (hierarchy_id)
+          do update set version = v.version + 1,
+                        updated_at = now()
+      """;
+  /**
+   * Version de parametros del nodo y de todos los nodos, 0 si no tienen escrituras
+   */
+  public static final String GET_PARAMETERS_VERSION = """
+      select coalesce(max(version) filter (where hierarchy_id = :idHierarchy), 0) node_version,
+             coalesce(max(version) filter (where hierarchy_id = 0), 0) all_version
+          from hierarchy.bt_hierarchy_parameters_version
+          where hierarchy_id in (:idHierarchy, 0)
+      """;
+  /**
+   * Publica un cambio de parametros a las demas instancias; dentro de una transaccion se entrega al confirmar
+   */
+  public static final String NOTIFY_PARAMETERS_CHANGED = """
+      select pg_notify(:channel, :payload)
+      """;
 }
-
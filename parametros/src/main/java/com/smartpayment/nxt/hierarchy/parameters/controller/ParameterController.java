@@ -1,15 +1,17 @@
 package com.smartpayment.nxt.hierarchy.parameters.controller;
 
 import com.smartpayment.nxt.hierarchy.parameters.aop.CheckAccess;
+import com.smartpayment.nxt.hierarchy.parameters.cache.TranslationStore;
 import com.smartpayment.nxt.hierarchy.parameters.dto.GroupedParameterDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ParameterDTO;
-import com.smartpayment.nxt.hierarchy.parameters.dto.ParameterPropertyObjectDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseDataParameterDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseParameterDTO;
-import com.smartpayment.nxt.hierarchy.parameters.dto.TranslateDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.SpreadJobDTO;
 import com.smartpayment.nxt.hierarchy.parameters.exception.HierarchyException;
 import com.smartpayment.nxt.hierarchy.parameters.service.ParameterService;
+import com.smartpayment.nxt.hierarchy.parameters.service.SpreadJobService;
 import com.smartpayment.nxt.hierarchy.parameters.util.ParametersTranslate;
+import com.smartpayment.nxt.hierarchy.parameters.util.TranslationIndex;
 import com.smartpayments.nxt.model.ResponseDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -24,8 +26,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -34,10 +38,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import static com.smartpayment.nxt.hierarchy.parameters.config.StreamingAsyncConfig.markStreaming;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ERROR_CREATE_PARAMETER;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ERROR_DELETE_PARAMETER;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ERROR_GROUP_PARAMETER;
@@ -60,59 +70,95 @@ import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConsta
 @RequiredArgsConstructor
 public class ParameterController {
   public static final String MODULE = "parameters";
+  public static final String NDJSON = "application/x-ndjson";
+  public static final String JSON_LINES = "application/jsonl";
   private final ParameterService parametersService;
   private final ParametersTranslate parametersTranslate;
-  public volatile List<TranslateDTO> listTranslate=null;
+  private final TranslationStore translationStore;
+  private final SpreadJobService spreadJobService;
   @Operation(summary = "Obtener catálogo de parámetros")
   @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Catálogo obtenido exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "401", description = "No autorizado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "403", description = "Prohibido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))})
-  @ResponseStatus(HttpStatus.OK)
   @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_QUERY)
   @GetMapping(value = "/catalog", produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseDTO getCatalog(@RequestParam(value = "id", required = true) Integer id, ServletResponse servletResponse, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
-      try{
-        GroupedParameterDTO groupedParameter = parametersService.getCatalog(id).get();
-        return parametersTranslate.getTranslateGroup(
+  public CompletableFuture<ResponseEntity<ResponseDTO>> getCatalog(@RequestParam(value = "id", required = true) Integer id, ServletResponse servletResponse, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
+    TranslationIndex translations = getCachedTranslate(acceptLanguage);
+    return respondIfModified(id, ifNoneMatch, () -> parametersService.getCatalog(id),
+        groupedParameter -> parametersTranslate.getTranslateGroup(
             groupedParameter,
             "nxt-msa-hierarchy-parameter_200_01",
-            getCachedTranslate(acceptLanguage)
-        );
-      } catch (InterruptedException | ExecutionException e) {
-        throw new HierarchyException(ERROR_GROUP_PARAMETER, "Error al obtener catalogo de jerarquía: " + e.getMessage());
-      }
-
+            translations
+        ),
+        ERROR_GROUP_PARAMETER, "Error al obtener catalogo de jerarquía: ");
   }
 
   @Operation(summary = "Obtener plantilla de parámetro")
   @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Plantilla obtenida exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "401", description = "No autorizado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "403", description = "Prohibido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))})
-  @ResponseStatus(HttpStatus.OK)
   @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_QUERY)
   @GetMapping(value = "/template", produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseDTO getTemplate(@RequestParam(value = "id", required = true) Integer id, @RequestParam(value = "parameter", required = true) Integer parameter, HttpServletRequest request, ServletResponse servletResponse, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
-    try{
-      List<ParameterPropertyObjectDTO> listParameterPropertyObjectDTO = parametersService.getTemplate(id,parameter).get();
-      return parametersTranslate.getTranslateGroup(
-          listParameterPropertyObjectDTO,
-          "nxt-msa-hierarchy-parameter_200_02",getCachedTranslate(acceptLanguage));
-    } catch (InterruptedException | ExecutionException e) {
-      throw new HierarchyException(ERROR_GROUP_PARAMETER, "Error al obtener template de jerarquía: " + e.getMessage());
-    }
+  public CompletableFuture<ResponseEntity<ResponseDTO>> getTemplate(@RequestParam(value = "id", required = true) Integer id, @RequestParam(value = "parameter", required = true) Integer parameter, HttpServletRequest request, ServletResponse servletResponse, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
+    TranslationIndex translations = getCachedTranslate(acceptLanguage);
+    return respondIfModified(id, ifNoneMatch, () -> parametersService.getTemplate(id, parameter),
+        listParameterPropertyObjectDTO -> parametersTranslate.getTranslateGroup(
+            listParameterPropertyObjectDTO,
+            "nxt-msa-hierarchy-parameter_200_02", translations),
+        ERROR_GROUP_PARAMETER, "Error al obtener template de jerarquía: ");
+  }
+
+  @Operation(summary = "Obtener parámetros efectivos del nodo por herencia de sus ancestros")
+  @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Parámetros efectivos obtenidos exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "401", description = "No autorizado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "403", description = "Prohibido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))})
+  @ResponseStatus(HttpStatus.OK)
+  @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_QUERY)
+  @GetMapping(value = "/effective", produces = MediaType.APPLICATION_JSON_VALUE)
+  public CompletableFuture<ResponseDTO> getEffectiveParameters(@RequestParam(value = "id", required = true) Integer id, @RequestParam(value = "parameter", required = false) Integer parameter, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
+    TranslationIndex translations = getCachedTranslate(acceptLanguage);
+    return respond(parametersService.getEffectiveParameters(id, parameter),
+        effective -> parametersTranslate.getTranslateGroup(
+            effective,
+            "nxt-msa-hierarchy-parameter_200_03", translations),
+        ERROR_GROUP_PARAMETER, "Error al obtener parámetros efectivos de jerarquía: ");
   }
 
   @Operation(summary = "Obtener lista de parámetros")
   @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Parámetros obtenidos exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDataParameterDTO.class))), @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDataParameterDTO.class))), @ApiResponse(responseCode = "401", description = "No autorizado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDataParameterDTO.class))), @ApiResponse(responseCode = "403", description = "Prohibido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDataParameterDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDataParameterDTO.class)))})
-  @ResponseStatus(HttpStatus.OK)
   @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_QUERY)
   @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseDataParameterDTO getParameters(@RequestParam(value = "id", required = true) Integer id, @RequestParam(value = "parameter", required = true) Integer parameter, @RequestParam(value = "property", required = true) Integer property, @RequestParam(value = "page", required = true) Integer page, @RequestParam(value = "size", required = true) Integer size, HttpServletRequest request, ServletResponse servletResponse, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
-    try{
-      ResponseDataParameterDTO responseDataParameterDTO = parametersService.getDataHierarchy (id, parameter, property, page, size).get();
-      return parametersTranslate.getTranslateResponseDataParameter(
-          responseDataParameterDTO,
-          "nxt-msa-hierarchy-parameter_200_03",  getCachedTranslate(acceptLanguage));
-    } catch (InterruptedException | ExecutionException e) {
-      throw new HierarchyException(ERROR_GROUP_PARAMETER, "Error al obtener datos de jerarquía: " + e.getMessage());
+  public CompletableFuture<ResponseEntity<ResponseDataParameterDTO>> getParameters(@RequestParam(value = "id", required = true) Integer id, @RequestParam(value = "parameter", required = true) Integer parameter, @RequestParam(value = "property", required = true) Integer property, @RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "size", required = true) Integer size, @RequestParam(value = "cursor", required = false) String cursor, @RequestParam(value = "count", required = false, defaultValue = "true") boolean count, HttpServletRequest request, ServletResponse servletResponse, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
+    TranslationIndex translations = getCachedTranslate(acceptLanguage);
+    // Con "cursor" (vacío para la primera página) se pagina por hierarchy_property_id en lugar de page/size
+    Supplier<CompletableFuture<ResponseDataParameterDTO>> data = () -> cursor != null
+        ? parametersService.getDataHierarchyByCursor(id, parameter, property, cursor, size)
+        : parametersService.getDataHierarchy(id, parameter, property, page, size, count);
+    return respondIfModified(id, ifNoneMatch, data,
+        responseDataParameterDTO -> parametersTranslate.getTranslateResponseDataParameter(
+            responseDataParameterDTO,
+            "nxt-msa-hierarchy-parameter_200_03", translations),
+        ERROR_GROUP_PARAMETER, "Error al obtener datos de jerarquía: ");
+  }
+
+  @Operation(summary = "Exportar parámetros del nodo y sus descendientes en NDJSON")
+  @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Exportación en curso, un parámetro por línea", content = @Content(mediaType = NDJSON, schema = @Schema(implementation = ResponseParameterDTO.class))), @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "401", description = "No autorizado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "403", description = "Prohibido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))})
+  @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_QUERY)
+  @GetMapping(value = "/export", produces = {NDJSON, JSON_LINES})
+  public ResponseEntity<StreamingResponseBody> exportParameters(@RequestParam(value = "id", required = true) Integer id, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = NDJSON) String accept) {
+    if (id == null || id <= 0) {
+      throw new HierarchyException(ERROR_GROUP_PARAMETER, "El ID debe ser mayor que cero");
     }
+    markStreaming(request);
+    StreamingResponseBody body = out -> parametersService.exportParameters(id, out);
+    return ResponseEntity.ok().contentType(linesMediaType(accept)).body(body);
+  }
 
+  @Operation(summary = "Obtener catálogos de parámetros de varios nodos en NDJSON")
+  @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Catálogos obtenidos exitosamente, uno por línea", content = @Content(mediaType = NDJSON, schema = @Schema(implementation = GroupedParameterDTO.class))), @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "401", description = "No autorizado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "403", description = "Prohibido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))})
+  @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_QUERY)
+  @GetMapping(value = "/catalogs", produces = {NDJSON, JSON_LINES})
+  public CompletableFuture<ResponseEntity<StreamingResponseBody>> getCatalogs(@RequestParam(value = "ids", required = true) List<Integer> ids, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = NDJSON) String accept) {
+    markStreaming(request);
+    MediaType contentType = linesMediaType(accept);
+    return respond(parametersService.getCatalogs(ids),
+        catalogs -> ResponseEntity.ok().contentType(contentType)
+            .<StreamingResponseBody>body(out -> parametersService.writeCatalogs(catalogs, out)),
+        ERROR_GROUP_PARAMETER, "Error al obtener catálogos de jerarquía: ");
   }
 
   @Operation(summary = "Crear nuevo parámetro")
@@ -120,17 +166,27 @@ public class ParameterController {
   @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.CREATED)
   @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_CREATE_PROP)
-  public ResponseDataParameterDTO createParameter(@Valid @RequestBody ResponseParameterDTO dto, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
-    try {
-      ResponseParameterDTO created = parametersService.create(dto).get();
-      return parametersTranslate.getTranslateResponseDataParameter(
-          ResponseDataParameterDTO.builder().data(Collections.singletonList(created)).build(),
-          "nxt-msa-hierarchy-parameter_201_01",
-          getCachedTranslate(acceptLanguage)
-      );
-    } catch (InterruptedException | ExecutionException e) {
-      throw new HierarchyException(ERROR_CREATE_PARAMETER, "Error al crear parámetro: " + e.getMessage());
-    }
+  public CompletableFuture<ResponseDataParameterDTO> createParameter(@Valid @RequestBody ResponseParameterDTO dto, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
+    TranslationIndex translations = getCachedTranslate(acceptLanguage);
+    return respond(parametersService.create(dto),
+        created -> parametersTranslate.getTranslateResponseDataParameter(
+            ResponseDataParameterDTO.builder().data(Collections.singletonList(created)).build(),
+            "nxt-msa-hierarchy-parameter_201_01",
+            translations
+        ),
+        ERROR_CREATE_PARAMETER, "Error al crear parámetro: ");
+  }
+
+  @Operation(summary = "Crear parámetros en lote")
+  @ApiResponses(value = {@ApiResponse(responseCode = "201", description = "Lote procesado, con resultado por elemento", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "401", description = "No autorizado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "403", description = "Prohibido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))})
+  @PostMapping(value = "/bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.CREATED)
+  @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_CREATE_PROP)
+  public CompletableFuture<ResponseDTO> createParametersBulk(@RequestBody List<ResponseParameterDTO> dtos, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
+    TranslationIndex translations = getCachedTranslate(acceptLanguage);
+    return respond(parametersService.createBulk(dtos),
+        results -> parametersTranslate.getTranslateGroup(results, "nxt-msa-hierarchy-parameter_201_01", translations),
+        ERROR_CREATE_PARAMETER, "Error al crear parámetros en lote: ");
   }
 
   @Operation(summary = "Actualizar parámetro existente")
@@ -138,16 +194,15 @@ public class ParameterController {
   @ResponseStatus(HttpStatus.OK)
   @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_DISABLE_PRO)
   @PutMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseDataParameterDTO updateParameter(@Valid @RequestBody ResponseParameterDTO dto, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
-    try{
-      parametersService.update(dto).get();
-      dto.setSpreadParameters(STATUS_PROPAGATE);
-      return parametersTranslate.getTranslateResponseDataParameter(
-          ResponseDataParameterDTO.builder().data(Arrays.asList(dto)).build(),  dto.getStatus() == 1 ?
-              "nxt-msa-hierarchy-parameter_200_04" : "nxt-msa-hierarchy-parameter_200_05", getCachedTranslate(acceptLanguage));
-    } catch (InterruptedException | ExecutionException e) {
-      throw new HierarchyException(ERROR_UPDATE_STATUS_PARAMETERS_EMPTY, "Error al modificar parámetro: " + e.getMessage());
-    }
+  public CompletableFuture<ResponseDataParameterDTO> updateParameter(@Valid @RequestBody ResponseParameterDTO dto, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
+    TranslationIndex translations = getCachedTranslate(acceptLanguage);
+    return respond(parametersService.update(dto), updated -> {
+          dto.setSpreadParameters(STATUS_PROPAGATE);
+          return parametersTranslate.getTranslateResponseDataParameter(
+              ResponseDataParameterDTO.builder().data(Arrays.asList(dto)).build(), dto.getStatus() == 1 ?
+                  "nxt-msa-hierarchy-parameter_200_04" : "nxt-msa-hierarchy-parameter_200_05", translations);
+        },
+        ERROR_UPDATE_STATUS_PARAMETERS_EMPTY, "Error al modificar parámetro: ");
   }
 
   @Operation(summary = "Propagar parámetro")
@@ -155,18 +210,48 @@ public class ParameterController {
   @ResponseStatus(HttpStatus.OK)
   @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_PROPAGATE)
   @PutMapping(value = "/spread", produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseDataParameterDTO spreadParameter(@Valid @RequestBody ResponseParameterDTO dto, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
-    try{
-        Integer elementsToSpread= parametersService.spread(dto).get();
-        String codeMessage="nxt-msa-hierarchy-parameter_200_11";
-        if(elementsToSpread>0){
-          codeMessage="nxt-msa-hierarchy-parameter_200_06";
-        }
-        return parametersTranslate.getTranslateResponseDataParameter(
-            ResponseDataParameterDTO.builder().data(Arrays.asList(dto)).build(),  codeMessage,  getCachedTranslate(acceptLanguage));
-    } catch (InterruptedException | ExecutionException e) {
-      throw new HierarchyException(ERROR_SPREAD_PROPERTY_PARAMETER, "Error al modificar parámetro: " + e.getMessage());
-    }
+  public CompletableFuture<ResponseDataParameterDTO> spreadParameter(@Valid @RequestBody ResponseParameterDTO dto, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
+    TranslationIndex translations = getCachedTranslate(acceptLanguage);
+    return respond(parametersService.spread(dto), elementsToSpread -> {
+          String codeMessage = elementsToSpread > 0 ? "nxt-msa-hierarchy-parameter_200_06" : "nxt-msa-hierarchy-parameter_200_11";
+          return parametersTranslate.getTranslateResponseDataParameter(
+              ResponseDataParameterDTO.builder().data(Arrays.asList(dto)).build(), codeMessage, translations);
+        },
+        ERROR_SPREAD_PROPERTY_PARAMETER, "Error al modificar parámetro: ");
+  }
+
+  @Operation(summary = "Propagar parámetro escribiendo solo las diferencias")
+  @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Parámetro propagado exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "401", description = "No autorizado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "403", description = "Prohibido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))})
+  @ResponseStatus(HttpStatus.OK)
+  @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_PROPAGATE)
+  @PutMapping(value = "/spread/diff", produces = MediaType.APPLICATION_JSON_VALUE)
+  public CompletableFuture<ResponseDTO> spreadParameterDiff(@Valid @RequestBody ResponseParameterDTO dto, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
+    TranslationIndex translations = getCachedTranslate(acceptLanguage);
+    return respond(parametersService.spreadDiff(dto), result -> {
+          String codeMessage = result.getTotalWrites() > 0 ? "nxt-msa-hierarchy-parameter_200_06" : "nxt-msa-hierarchy-parameter_200_11";
+          return parametersTranslate.getTranslateGroup(result, codeMessage, translations);
+        },
+        ERROR_SPREAD_PROPERTY_PARAMETER, "Error al propagar parámetro: ");
+  }
+
+  @Operation(summary = "Propagar parámetro como trabajo en segundo plano")
+  @ApiResponses(value = {@ApiResponse(responseCode = "202", description = "Propagación registrada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "401", description = "No autorizado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "403", description = "Prohibido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))})
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_PROPAGATE)
+  @PutMapping(value = "/spread/jobs", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseDTO submitSpreadJob(@Valid @RequestBody ResponseParameterDTO dto, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
+    SpreadJobDTO job = spreadJobService.submit(dto);
+    return parametersTranslate.getTranslateGroup(job, "nxt-msa-hierarchy-parameter_200_06", getCachedTranslate(acceptLanguage));
+  }
+
+  @Operation(summary = "Consultar avance de una propagación")
+  @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Trabajo obtenido exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "401", description = "No autorizado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "403", description = "Prohibido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDTO.class)))})
+  @ResponseStatus(HttpStatus.OK)
+  @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_QUERY)
+  @GetMapping(value = "/spread/jobs/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseDTO getSpreadJob(@PathVariable UUID jobId, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
+    SpreadJobDTO job = spreadJobService.getJob(jobId);
+    return parametersTranslate.getTranslateGroup(job, "nxt-msa-hierarchy-parameter_200_01", getCachedTranslate(acceptLanguage));
   }
 
   @Operation(summary = "Deshabilitar parámetro")
@@ -174,14 +259,12 @@ public class ParameterController {
   @ResponseStatus(HttpStatus.OK)
   @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_DISABLE)
   @PutMapping(value = "/enable", produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseDTO disableParameter( @Valid @RequestBody ParameterDTO dto, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
-    try{
-      GroupedParameterDTO  dato =parametersService.disable(dto).get();
-        return parametersTranslate.getTranslateGroup(dato, (dto.getStatus() == 1 ?
-            "nxt-msa-hierarchy-parameter_200_07" : "nxt-msa-hierarchy-parameter_200_08"),getCachedTranslate(acceptLanguage));
-    } catch (InterruptedException | ExecutionException e) {
-      throw new HierarchyException(ERROR_UPDATE_STATUS_PARAMETERS_EMPTY, "Error al modificar parámetro: " + e.getMessage());
-    }
+  public CompletableFuture<ResponseDTO> disableParameter( @Valid @RequestBody ParameterDTO dto, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
+    TranslationIndex translations = getCachedTranslate(acceptLanguage);
+    return respond(parametersService.disable(dto),
+        dato -> parametersTranslate.getTranslateGroup(dato, (dto.getStatus() == 1 ?
+            "nxt-msa-hierarchy-parameter_200_07" : "nxt-msa-hierarchy-parameter_200_08"), translations),
+        ERROR_UPDATE_STATUS_PARAMETERS_EMPTY, "Error al modificar parámetro: ");
   }
 
   @Operation(summary = "Eliminar parámetro")
@@ -189,39 +272,90 @@ public class ParameterController {
   @ResponseStatus(HttpStatus.OK)
   @CheckAccess(module = PROFILE_CATEGORY, activity = PROFILE_DELETE_PROP)
   @DeleteMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseDataParameterDTO deleteParameter( @Valid @RequestBody ResponseParameterDTO dto, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
-    try{
-      parametersService.delete(dto).get();
-      dto.setDeleteParameter(1);
-      return parametersTranslate.getTranslateResponseDataParameter(
-          ResponseDataParameterDTO.builder().data(Arrays.asList(dto)).build(),
-          "nxt-msa-hierarchy-parameter_200_09", getCachedTranslate(acceptLanguage));
-    } catch (InterruptedException | ExecutionException e) {//
-      throw new HierarchyException(ERROR_DELETE_PARAMETER, "Error al modificar parámetro: " + e.getMessage());
-    }
+  public CompletableFuture<ResponseDataParameterDTO> deleteParameter( @Valid @RequestBody ResponseParameterDTO dto, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
+    TranslationIndex translations = getCachedTranslate(acceptLanguage);
+    return respond(parametersService.delete(dto), deleted -> {
+          dto.setDeleteParameter(1);
+          return parametersTranslate.getTranslateResponseDataParameter(
+              ResponseDataParameterDTO.builder().data(Arrays.asList(dto)).build(),
+              "nxt-msa-hierarchy-parameter_200_09", translations);
+        },
+        ERROR_DELETE_PARAMETER, "Error al modificar parámetro: ");
   }
   @Operation(summary = "Toma parámetros de Parent")
   @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Parámetros heredados con éxito", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDataParameterDTO.class))), @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDataParameterDTO.class))), @ApiResponse(responseCode = "401", description = "No autorizado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDataParameterDTO.class))), @ApiResponse(responseCode = "403", description = "Prohibido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDataParameterDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDataParameterDTO.class)))})
   @ResponseStatus(HttpStatus.OK)
   @PutMapping(value = "/take", produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseDataParameterDTO takeParameter(@Valid @RequestBody ResponseParameterDTO dto, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
-    try{
-      parametersService.takeHierarchy(dto).get();
-      return parametersTranslate.getTranslateResponseDataParameter(
-          ResponseDataParameterDTO.builder().data(Arrays.asList(dto)).build(),
-          "nxt-msa-hierarchy-parameter_200_10",  getCachedTranslate(acceptLanguage));
-    } catch (InterruptedException | ExecutionException e) {//
-      throw new HierarchyException(ERROR_TAKE_PARAMETER, "Error al modificar parámetro: " + e.getMessage());
-    }
+  public CompletableFuture<ResponseDataParameterDTO> takeParameter(@Valid @RequestBody ResponseParameterDTO dto, HttpServletRequest request, @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, defaultValue = ESPANOL) String acceptLanguage) {
+    TranslationIndex translations = getCachedTranslate(acceptLanguage);
+    return respond(parametersService.takeHierarchy(dto),
+        taken -> parametersTranslate.getTranslateResponseDataParameter(
+            ResponseDataParameterDTO.builder().data(Arrays.asList(dto)).build(),
+            "nxt-msa-hierarchy-parameter_200_10", translations),
+        ERROR_TAKE_PARAMETER, "Error al modificar parámetro: ");
   }
-  private List<TranslateDTO> getCachedTranslate(String language) {
-    if (listTranslate == null || listTranslate.isEmpty()) {
-      synchronized (this) {
-        if (listTranslate == null || listTranslate.isEmpty()) {
-          listTranslate = parametersService.getTranslate(language).join(); // o .get() con manejo de excepciones
-        }
+  private TranslationIndex getCachedTranslate(String language) {
+    return translationStore.getTranslations(MODULE, language);
+  }
+
+  /**
+   * Obtiene en el executor del servicio el ETag de la versión de parámetros del nodo y lo
+   * compara con If-None-Match antes de las consultas del endpoint: si coincide responde 304
+   * sin consultar, si no responde con el resultado y el ETag. Ninguna consulta ocupa el hilo
+   * del servlet. Los mensajes se traducen según Accept-Language, así que el ETag solo vale por
+   * idioma (Vary), también en el 304.
+   */
+  private <T, R> CompletableFuture<ResponseEntity<R>> respondIfModified(Integer idHierarchy, String ifNoneMatch,
+                                                                       Supplier<CompletableFuture<T>> query,
+                                                                       Function<T, R> response,
+                                                                       String errorCode, String errorMessage) {
+    return parametersService.getParametersETag(idHierarchy).thenCompose(etag -> {
+      if (etag != null && matchesETag(ifNoneMatch, etag)) {
+        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag).varyBy(HttpHeaders.ACCEPT_LANGUAGE).<R>build());
+      }
+      return respond(query.get(), response, errorCode, errorMessage)
+          .thenApply(body -> ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT_LANGUAGE).body(body));
+    });
+  }
+
+  /**
+   * Comparación débil de If-None-Match (lista separada por comas, W/ o *) contra el ETag sin comillas.
+   */
+  private static boolean matchesETag(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+      return false;
+    }
+    String quoted = "\"" + etag + "\"";
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if ("*".equals(tag) || quoted.equals(tag)) {
+        return true;
       }
     }
-    return listTranslate;
+    return false;
+  }
+
+  private static MediaType linesMediaType(String accept) {
+    return accept.contains(JSON_LINES) ? MediaType.parseMediaType(JSON_LINES) : MediaType.parseMediaType(NDJSON);
+  }
+
+  /**
+   * Arma la respuesta cuando termina el servicio, sin ocupar el hilo del servlet
+   * mientras tanto. Un error del servicio se reporta con el código del endpoint y
+   * el mismo mensaje que daba ExecutionException al esperar con get().
+   */
+  private static <T, R> CompletableFuture<R> respond(CompletableFuture<T> future, Function<T, R> response,
+                                                     String errorCode, String errorMessage) {
+    return future.handle((result, ex) -> {
+      if (ex != null) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        throw new HierarchyException(errorCode, errorMessage + cause);
+      }
+      return response.apply(result);
+    });
   }
 }
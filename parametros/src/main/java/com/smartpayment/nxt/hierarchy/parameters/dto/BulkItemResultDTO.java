@@ -0,0 +1,28 @@
+package com.smartpayment.nxt.hierarchy.parameters.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResultDTO implements Serializable {
+  @Serial
+  private static final long serialVersionUID = 3185406722370937424L;
+  /** Posición del elemento en la solicitud */
+  private int index;
+  private boolean success;
+  /** hierarchy_property_id creado */
+  private Integer id;
+  private Integer idParameter;
+  private String code;
+  private String message;
+}
@@ -0,0 +1,32 @@
+package com.smartpayment.nxt.hierarchy.parameters.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Valor efectivo de un parámetro-propiedad para un nodo: el definido en el propio nodo
+ * o, si no lo define, el del ancestro más cercano que lo define.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EffectiveParameterDTO implements Serializable {
+  @Serial
+  private static final long serialVersionUID = 4181052346119407263L;
+  private Integer idHierarchy;
+  private Integer idSystem;
+  private Integer idProperty;
+  /** hierarchy_id del nodo que define el valor */
+  private Integer inheritedFrom;
+  private Boolean inherited;
+  private List<ResponseParameterDTO> values;
+}
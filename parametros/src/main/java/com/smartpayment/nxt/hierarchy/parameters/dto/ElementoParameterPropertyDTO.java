@@ -1,4 +1,5 @@
 package com.smartpayment.nxt.hierarchy.parameters.dto;
+import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.google.gson.annotations.SerializedName;
 import lombok.AllArgsConstructor;
@@ -20,12 +21,16 @@ public class ElementoParameterPropertyDTO  implements Serializable {
   private String label;
   private String length;
   @SerializedName("data_type")
+  @JsonAlias("data_type")
   private String dataType;
   @SerializedName("field_name")
+  @JsonAlias("field_name")
   private String fieldName;
   @SerializedName("default_value")
+  @JsonAlias("default_value")
   private String defaultValue;
   @SerializedName("place_holder")
+  @JsonAlias("place_holder")
   private String placeHolder;
   @SerializedName("required")
   private Boolean required;
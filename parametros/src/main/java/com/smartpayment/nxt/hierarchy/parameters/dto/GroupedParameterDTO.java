@@ -1,14 +1,22 @@
 package com.smartpayment.nxt.hierarchy.parameters.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
@@ -17,17 +25,33 @@ import java.util.List;
 public class GroupedParameterDTO  implements Serializable{
   @Serial
   private static final long serialVersionUID = -1506066512485067115L;
+  private Integer idHierarchy;
   private List<CategoryDTO> categories =new ArrayList<>();
   private Integer spread;
+  /** Categorías por nombre para append; se reconstruye si categories cambió por fuera de append */
+  @JsonIgnore
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final transient Map<String, CategoryDTO> categoryIndex = new HashMap<>();
+
+  public void setCategories(List<CategoryDTO> categories) {
+    this.categories = categories;
+    this.categoryIndex.clear();
+  }
+
   public void append(CategoryDTO categoryDTO) {
     if (categoryDTO == null) {
       return;
     }
 
-    boolean categoryExists = this.categories.stream()
-        .anyMatch(m -> m.getName().equals(categoryDTO.getName()));
+    if (categoryIndex.size() != categories.size()) {
+      categoryIndex.clear();
+      categories.forEach(category -> categoryIndex.putIfAbsent(category.getName(), category));
+    }
 
-    if (!categoryExists) {
+    if (categoryIndex.putIfAbsent(categoryDTO.getName(), categoryDTO) == null) {
       this.categories.add(categoryDTO);
     }
   }
@@ -0,0 +1,25 @@
+package com.smartpayment.nxt.hierarchy.parameters.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Tipo y estatus de un nodo de la jerarquía; idParent solo se llena al cargar el índice del árbol
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HierarchyNodeDTO implements Serializable {
+  @Serial
+  private static final long serialVersionUID = 3184420957361160218L;
+  private Integer idHierarchy;
+  private Integer nodeTypeId;
+  private Integer status;
+  private Integer idParent;
+}
@@ -1,5 +1,6 @@
 package com.smartpayment.nxt.hierarchy.parameters.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.smartpayments.nxt.dto.ResponseCodeDTO;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -26,5 +27,11 @@ public class ResponseDataParameterDTO implements java.io.Serializable {
   private Integer spread;
   private Integer totalPages;
   private Integer totalElements;
+  /** Cursor opaco para pedir la siguiente página; null cuando no hay más datos */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String nextCursor;
+  /** Indica si existe página siguiente cuando se omite el conteo exacto */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Boolean hasNext;
   private ResponseCodeDTO responseCode;
 }
@@ -0,0 +1,34 @@
+package com.smartpayment.nxt.hierarchy.parameters.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Filas escritas por una propagación incremental
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpreadDiffResultDTO implements Serializable {
+  @Serial
+  private static final long serialVersionUID = 6650179352461825034L;
+  private Integer idHierarchy;
+  private Integer idSystem;
+  private int insertedParameters;
+  private int updatedParameters;
+  private int deletedParameters;
+  private int insertedProperties;
+  private int updatedProperties;
+  private int deletedProperties;
+
+  public int getTotalWrites() {
+    return insertedParameters + updatedParameters + deletedParameters
+        + insertedProperties + updatedProperties + deletedProperties;
+  }
+}
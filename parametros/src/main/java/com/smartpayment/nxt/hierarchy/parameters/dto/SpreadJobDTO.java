@@ -0,0 +1,51 @@
+package com.smartpayment.nxt.hierarchy.parameters.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SpreadJobDTO implements Serializable {
+  @Serial
+  private static final long serialVersionUID = -3021178476385613620L;
+  public static final String PENDING = "PENDING";
+  public static final String RUNNING = "RUNNING";
+  public static final String COMPLETED = "COMPLETED";
+  public static final String FAILED = "FAILED";
+
+  private UUID jobId;
+  private Integer idHierarchy;
+  private Integer idSystem;
+  private String status;
+  /** Nivel de hierarchy_path del nodo que se propaga */
+  private int rootLevel;
+  /** Nivel más profundo de los descendientes */
+  private int maxLevel;
+  /** Último nivel terminado; igual a rootLevel mientras no se termina ninguno */
+  private int lastLevel;
+  private long deletedRows;
+  private long insertedParameters;
+  private long insertedProperties;
+  private String errorMessage;
+  private LocalDateTime createdAt;
+  private LocalDateTime updatedAt;
+
+  /**
+   * Porcentaje de niveles terminados
+   */
+  public int getProgress() {
+    int levels = maxLevel - rootLevel;
+    return levels <= 0 ? (COMPLETED.equals(status) ? 100 : 0) : (lastLevel - rootLevel) * 100 / levels;
+  }
+}
@@ -0,0 +1,92 @@
+package com.smartpayment.nxt.hierarchy.parameters.metrics;
+
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * NamedParameterJdbcTemplate que registra en QueryMetrics cada sentencia que
+ * ejecuta. Se sobrescriben solo los métodos con SqlParameterSource, a los que
+ * delegan las variantes con Map, para no contar una sentencia dos veces.
+ */
+public class InstrumentedJdbcTemplate extends NamedParameterJdbcTemplate {
+  private final String datasource;
+  private final Supplier<QueryMetrics> metricsProvider;
+  private volatile QueryMetrics metrics;
+
+  /**
+   * @param jdbcOperations operaciones JDBC del template original
+   * @param datasource etiqueta del origen de la conexión
+   * @param metricsProvider se resuelve en la primera sentencia, no al crear el bean
+   */
+  public InstrumentedJdbcTemplate(JdbcOperations jdbcOperations, String datasource, Supplier<QueryMetrics> metricsProvider) {
+    super(jdbcOperations);
+    this.datasource = datasource;
+    this.metricsProvider = metricsProvider;
+  }
+
+  @Override
+  public void query(String sql, SqlParameterSource paramSource, RowCallbackHandler rch) {
+    metrics().record(datasource, sql, () -> {
+      long[] rows = {0};
+      super.query(sql, paramSource, rs -> {
+        rows[0]++;
+        rch.processRow(rs);
+      });
+      return rows[0];
+    }, Long::longValue);
+  }
+
+  @Override
+  public <T> List<T> query(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper) {
+    return metrics().record(datasource, sql, () -> super.query(sql, paramSource, rowMapper), List::size);
+  }
+
+  @Override
+  public <T> T queryForObject(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper) {
+    return metrics().record(datasource, sql, () -> super.queryForObject(sql, paramSource, rowMapper), result -> 1);
+  }
+
+  @Override
+  public int update(String sql, SqlParameterSource paramSource) {
+    return metrics().record(datasource, sql, () -> super.update(sql, paramSource), Integer::longValue);
+  }
+
+  @Override
+  public int update(String sql, SqlParameterSource paramSource, KeyHolder generatedKeyHolder, String[] keyColumnNames) {
+    return metrics().record(datasource, sql,
+        () -> super.update(sql, paramSource, generatedKeyHolder, keyColumnNames), Integer::longValue);
+  }
+
+  @Override
+  public int[] batchUpdate(String sql, SqlParameterSource[] batchArgs) {
+    return metrics().record(datasource, sql, () -> super.batchUpdate(sql, batchArgs), InstrumentedJdbcTemplate::affectedRows);
+  }
+
+  @Override
+  public int[] batchUpdate(String sql, SqlParameterSource[] batchArgs, KeyHolder generatedKeyHolder, String[] keyColumnNames) {
+    return metrics().record(datasource, sql,
+        () -> super.batchUpdate(sql, batchArgs, generatedKeyHolder, keyColumnNames), InstrumentedJdbcTemplate::affectedRows);
+  }
+
+  private QueryMetrics metrics() {
+    QueryMetrics current = metrics;
+    if (current == null) {
+      current = metricsProvider.get();
+      metrics = current;
+    }
+    return current;
+  }
+
+  // Statement.SUCCESS_NO_INFO (-2) no aporta filas
+  private static long affectedRows(int[] counts) {
+    return Arrays.stream(counts).filter(count -> count > 0).asLongStream().sum();
+  }
+}
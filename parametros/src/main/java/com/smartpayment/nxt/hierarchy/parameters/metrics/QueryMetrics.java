@@ -0,0 +1,167 @@
+package com.smartpayment.nxt.hierarchy.parameters.metrics;
+
+import com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Tiempo, filas y errores por sentencia SQL, etiquetados con el nombre de la
+ * constante de ParameterQueries y no con el texto de la consulta. Las sentencias
+ * armadas por concatenación (por ejemplo la consulta más su paginación) se
+ * nombran A+B; las que no corresponden a ninguna constante quedan como "other".
+ */
+@Slf4j
+@Component
+public class QueryMetrics {
+  public static final String METRIC_NAME = "hierarchy.query";
+  static final String OTHER = "other";
+  private static final int MAX_RESOLVED_SQL = 1000;
+
+  private final MeterRegistry meterRegistry;
+  private final Map<String, String> namesBySql;
+  private final Map<String, String> resolvedNames = new ConcurrentHashMap<>();
+  private final Map<String, QueryMeters> meters = new ConcurrentHashMap<>();
+
+  public QueryMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.namesBySql = loadQueryNames();
+    log.info("Métricas por consulta para {} sentencias de ParameterQueries", namesBySql.size());
+  }
+
+  /**
+   * Ejecuta la sentencia registrando su tiempo, filas y errores.
+   * @param datasource origen de la conexión (primary o readonly)
+   * @param sql texto de la sentencia
+   * @param call ejecución de la sentencia
+   * @param rows filas leídas o escritas a partir del resultado
+   * @return resultado de la sentencia
+   */
+  public <T> T record(String datasource, String sql, Supplier<T> call, ToLongFunction<T> rows) {
+    QueryMeters queryMeters = meters(datasource, sql);
+    long start = System.nanoTime();
+    try {
+      T result = call.get();
+      queryMeters.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      queryMeters.rows().record(result != null ? rows.applyAsLong(result) : 0);
+      return result;
+    } catch (RuntimeException e) {
+      queryMeters.failure().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      Counter.builder(METRIC_NAME + ".errors")
+          .description("Sentencias SQL que terminaron en error")
+          .tag("query", queryMeters.name())
+          .tag("datasource", datasource)
+          .tag("exception", e.getClass().getSimpleName())
+          .register(meterRegistry)
+          .increment();
+      throw e;
+    }
+  }
+
+  /**
+   * Nombre estable de la sentencia.
+   * @param sql texto de la sentencia
+   * @return nombre de la constante de ParameterQueries, A+B si es concatenación, u "other"
+   */
+  public String name(String sql) {
+    if (sql == null) {
+      return OTHER;
+    }
+    String name = resolvedNames.get(sql);
+    if (name == null) {
+      name = resolve(sql);
+      // El SQL armado en tiempo de ejecución no debe crecer el mapa sin límite
+      if (resolvedNames.size() < MAX_RESOLVED_SQL) {
+        resolvedNames.put(sql, name);
+      }
+    }
+    return name;
+  }
+
+  private QueryMeters meters(String datasource, String sql) {
+    String name = name(sql);
+    return meters.computeIfAbsent(datasource + '|' + name, k -> new QueryMeters(name,
+        timer(name, datasource, "success"),
+        timer(name, datasource, "error"),
+        DistributionSummary.builder(METRIC_NAME + ".rows")
+            .description("Filas leídas o escritas por sentencia SQL")
+            .baseUnit("rows")
+            .tag("query", name)
+            .tag("datasource", datasource)
+            .register(meterRegistry)));
+  }
+
+  private Timer timer(String name, String datasource, String outcome) {
+    return Timer.builder(METRIC_NAME)
+        .description("Tiempo de ejecución por sentencia SQL")
+        .tag("query", name)
+        .tag("datasource", datasource)
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .minimumExpectedValue(Duration.ofMillis(1))
+        .maximumExpectedValue(Duration.ofSeconds(30))
+        .register(meterRegistry);
+  }
+
+  private String resolve(String sql) {
+    String name = namesBySql.get(sql);
+    if (name != null) {
+      return name;
+    }
+    // Concatenación: el prefijo más largo que sea una constante y el resto resuelto igual
+    String prefix = null;
+    for (String candidate : namesBySql.keySet()) {
+      if (sql.startsWith(candidate) && (prefix == null || candidate.length() > prefix.length())) {
+        prefix = candidate;
+      }
+    }
+    if (prefix == null) {
+      return OTHER;
+    }
+    String rest = sql.substring(prefix.length()).strip();
+    if (rest.isEmpty()) {
+      return namesBySql.get(prefix);
+    }
+    String restName = namesBySql.entrySet().stream()
+        .filter(entry -> entry.getKey().strip().equals(rest))
+        .map(Map.Entry::getValue)
+        .findFirst()
+        .orElse(null);
+    return restName != null ? namesBySql.get(prefix) + "+" + restName : OTHER;
+  }
+
+  private static Map<String, String> loadQueryNames() {
+    Map<String, String> names = new HashMap<>();
+    for (Field field : ParameterQueries.class.getFields()) {
+      if (field.getType() != String.class || !Modifier.isStatic(field.getModifiers())) {
+        continue;
+      }
+      try {
+        String sql = (String) field.get(null);
+        // Solo text blocks de SQL; se descartan nombres de parámetros como STATUS
+        if (sql != null && sql.indexOf('\n') >= 0) {
+          names.putIfAbsent(sql, field.getName());
+        }
+      } catch (IllegalAccessException e) {
+        log.warn("No se pudo leer la constante {} de ParameterQueries", field.getName());
+      }
+    }
+    return Map.copyOf(names);
+  }
+
+  private record QueryMeters(String name, Timer success, Timer failure, DistributionSummary rows) {
+  }
+}
@@ -0,0 +1,7 @@
+package com.smartpayment.nxt.hierarchy.parameters.models;
+
+/**
+ * Identifica un registro de bt_hierarchy_parameters por nodo, parámetro y propiedad.
+ */
+public record HierarchyParameterKey(Integer idHierarchy, Integer idSystem, Integer idProperty) {
+}
@@ -0,0 +1,32 @@
+package com.smartpayment.nxt.hierarchy.parameters.models;
+
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ALL_NODES;
+
+/**
+ * Cambio de parámetros publicado entre instancias con NOTIFY. El payload es
+ * origen:hierarchy_id:parameter_id, con parameter_id vacío si la escritura no lo tiene.
+ * @param origin instancia que hizo la escritura
+ * @param idHierarchy nodo escrito; ALL_NODES si la escritura afecta a descendientes
+ * @param idSystem parameter_id escrito, puede ser null
+ */
+public record ParameterChange(String origin, Integer idHierarchy, Integer idSystem) {
+
+  public boolean allNodes() {
+    return ALL_NODES.equals(idHierarchy);
+  }
+
+  public String encode() {
+    return origin + ":" + idHierarchy + ":" + (idSystem != null ? idSystem : "");
+  }
+
+  /**
+   * @throws IllegalArgumentException si el payload no tiene el formato esperado
+   */
+  public static ParameterChange decode(String payload) {
+    String[] parts = payload != null ? payload.split(":", -1) : new String[0];
+    if (parts.length != 3 || parts[0].isEmpty()) {
+      throw new IllegalArgumentException("Notificacion invalida: " + payload);
+    }
+    return new ParameterChange(parts[0], Integer.valueOf(parts[1]), parts[2].isEmpty() ? null : Integer.valueOf(parts[2]));
+  }
+}
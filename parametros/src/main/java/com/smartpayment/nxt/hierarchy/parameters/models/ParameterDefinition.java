@@ -0,0 +1,13 @@
+package com.smartpayment.nxt.hierarchy.parameters.models;
+
+import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseParameterDTO;
+
+import java.util.List;
+
+/**
+ * Parámetro-propiedad definido directamente en un nodo (fila de bt_hierarchy_parameters)
+ * con sus propiedades activas. Un status distinto de activo corta la herencia del parámetro.
+ */
+public record ParameterDefinition(Integer idHierarchy, Integer idSystem, Integer idProperty, Integer status,
+                                  List<ResponseParameterDTO> values) {
+}
@@ -0,0 +1,8 @@
+package com.smartpayment.nxt.hierarchy.parameters.models;
+
+/**
+ * Versión de los parámetros de un nodo: la de sus propias escrituras y la de las
+ * propagaciones, que cambian a todos los nodos. Ambas solo crecen.
+ */
+public record ParametersVersion(long node, long all) {
+}
@@ -1,18 +1,43 @@
 package com.smartpayment.nxt.hierarchy.parameters.repository;
 import com.smartpayment.nxt.hierarchy.parameters.dto.GroupedParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.HierarchyNodeDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ParameterPropertyObjectDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseDataParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.SpreadJobDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.TranslateDTO;
+import com.smartpayment.nxt.hierarchy.parameters.models.HierarchyParameterKey;
+import com.smartpayment.nxt.hierarchy.parameters.models.ParameterDefinition;
+import com.smartpayment.nxt.hierarchy.parameters.models.ParametersVersion;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ParametersRepository {
   GroupedParameterDTO getCatalog(MapSqlParameterSource params,String query);
 
+  /**
+   * Catálogos de varios nodos con una sola consulta.
+   * @return hierarchy_id -> catálogo, con todos los nodos solicitados
+   */
+  Map<Integer, GroupedParameterDTO> getCatalogs(Collection<Integer> idHierarchies);
+
   ResponseDataParameterDTO getParametersHierarchy(MapSqlParameterSource params, Integer count, Integer totalPaginas,
                                                   Integer size, Integer page,String query);
 
+  ResponseDataParameterDTO getParametersHierarchyPage(MapSqlParameterSource params, Integer size, Integer page, boolean exactCount);
+
+  /**
+   * Recorre los parámetros del subárbol con un cursor del lado del servidor, sin
+   * materializar el resultado en memoria.
+   * @return número de filas entregadas al consumer
+   */
+  long streamParametersSubtree(Integer idHierarchy, int fetchSize, Consumer<ResponseParameterDTO> consumer);
+
   Integer getForObjectInt(String query, MapSqlParameterSource pathParams);
 
   Integer getForInt(String query, MapSqlParameterSource pathParams);
@@ -21,11 +46,86 @@ public interface ParametersRepository {
 
   List<ParameterPropertyObjectDTO> getTemplate(MapSqlParameterSource params);
 
+  /**
+   * Template de un parámetro para un tipo de nodo, sin idHierarchy ni status.
+   * @return propiedades del template, null si la consulta falla
+   */
+  List<ParameterPropertyObjectDTO> getTemplateByNodeType(Integer nodeTypeId, Integer idParameter);
+
+  /**
+   * @return tipo y estatus del nodo, null si no existe o la consulta falla
+   */
+  HierarchyNodeDTO getHierarchyNode(Integer idHierarchy);
+
+  /**
+   * Nodos de la jerarquía con padre, tipo y estatus.
+   * @param afterId solo los nodos con hierarchy_id mayor; null para todos
+   */
+  List<HierarchyNodeDTO> getHierarchyTree(Integer afterId);
+
+  /**
+   * @return el nodo y sus ancestros, del más cercano a la raíz; vacío si el nodo no existe
+   */
+  List<Integer> getAncestors(Integer idHierarchy);
+
+  /**
+   * Parámetros definidos directamente en cada nodo, en una sola consulta.
+   * @return hierarchy_id -> definiciones; los nodos sin parámetros quedan con lista vacía
+   */
+  Map<Integer, List<ParameterDefinition>> getParameterDefinitions(Collection<Integer> idHierarchies);
+
   Integer createObject(String query, MapSqlParameterSource map);
 
   Integer updateObject(String query, MapSqlParameterSource pathParams);
 
+  /**
+   * Ejecuta la sentencia en un solo batch JDBC y regresa los ids generados, en el orden de los parámetros.
+   */
+  List<Integer> createObjectsBatch(String query, List<MapSqlParameterSource> batch, String keyColumn);
+
+  int[] updateObjectsBatch(String query, List<MapSqlParameterSource> batch);
+
+  Map<Integer, Integer> getStatusHierarchies(Collection<Integer> idHierarchies);
+
+  Map<HierarchyParameterKey, Integer> getHierarchyParameterIds(Collection<HierarchyParameterKey> keys);
+
   List<TranslateDTO> getTranslate(String category,String language);
 
+  Map<String, Map<String, List<TranslateDTO>>> getAllTranslate(List<String> categories);
+
   boolean hasAccess(String user, String roleId, String module, String activity);
+
+  /**
+   * @return [nivel del nodo, nivel más profundo de sus descendientes], null si el nodo no existe
+   */
+  int[] getSpreadLevels(Integer idHierarchy);
+
+  SpreadJobDTO getSpreadJob(UUID jobId);
+
+  /**
+   * @param owner instancia actual; sus trabajos se reanudan aunque el lease no haya vencido
+   */
+  List<SpreadJobDTO> getResumableSpreadJobs(String owner, long staleSeconds);
+
+  /**
+   * Bloquea la fila del trabajo hasta el fin de la transacción en curso.
+   * @return last_level del trabajo, null si ya no es de owner o no está RUNNING
+   */
+  Integer lockSpreadJob(UUID jobId, String owner);
+
+  /**
+   * Incrementa la versión de parámetros del nodo dentro de la transacción en curso.
+   * @param idHierarchy hierarchy_id del nodo; 0 para las escrituras que afectan a todos los nodos
+   */
+  void bumpParametersVersion(Integer idHierarchy);
+
+  /**
+   * @return versión de parámetros del nodo y de todos los nodos
+   */
+  ParametersVersion getParametersVersion(Integer idHierarchy);
+
+  /**
+   * NOTIFY en el canal indicado; dentro de una transacción se entrega al confirmar.
+   */
+  void notifyChange(String channel, String payload);
 }
@@ -2,23 +2,45 @@ package com.smartpayment.nxt.hierarchy.parameters.repository.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.github.benmanes.caffeine.cache.Interner;
+import com.smartpayment.nxt.hierarchy.parameters.cache.TemplateAttributesCache;
 import com.smartpayment.nxt.hierarchy.parameters.dto.*;
+import com.smartpayment.nxt.hierarchy.parameters.models.HierarchyParameterKey;
+import com.smartpayment.nxt.hierarchy.parameters.models.ParameterDefinition;
+import com.smartpayment.nxt.hierarchy.parameters.models.ParametersVersion;
 import com.smartpayment.nxt.hierarchy.parameters.repository.ParametersRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
 
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ID_HIERARCHIES;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ID_HIERARCHY;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ID_PARAMETER;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.NODE_TYPE;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ResponseCode.STATUS_ACTIVE;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.*;
 
@@ -26,29 +48,67 @@ import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQuerie
 @Repository
 @RequiredArgsConstructor
 public class ParameterRepositoryImpl implements ParametersRepository {
+  private static final Interner<String> CATALOG_STRINGS = Interner.newWeakInterner();
+
   private final ObjectMapper mapper;
   private final NamedParameterJdbcTemplate primaryJdbcTemplate;
   private final NamedParameterJdbcTemplate readOnlyJdbcTemplate;
+  private final TemplateAttributesCache templateAttributesCache;
+  private final ReadYourWritesRouter readYourWritesRouter;
 
 
   @Override
   public GroupedParameterDTO getCatalog(MapSqlParameterSource params, String query) {
     GroupedParameterDTO result = new GroupedParameterDTO();
-    result.setCategories(new ArrayList<>());
+    // Categorías en el orden de la consulta, agrupadas en una sola pasada
+    Map<String, CategoryDTO> categories = new LinkedHashMap<>();
     try {
-      readOnlyJdbcTemplate.query(query, params, (rs) -> {
-        String categoryName = rs.getString("category_name");
-        CategoryDTO category = getCategory(rs, result, categoryName);
-        ParameterDTO parameter = getGroupParameter(rs);
-        category.getParameterDTOS().add(parameter);
-      });
+      reader(params).query(query, params, (rs) -> addCatalogRow(rs, categories));
     } catch (DataAccessException e) {
       log.error("Error al obtener el catálogo de parámetros. Query: {}, Params: {}, Error: {}", query, params, e.getMessage(), e);
       throw new RuntimeException("Error al obtener el catálogo de parámetros", e);
     }
+    result.setCategories(new ArrayList<>(categories.values()));
+    return result;
+  }
+
+  @Override
+  public Map<Integer, GroupedParameterDTO> getCatalogs(Collection<Integer> idHierarchies) {
+    // Categorías de cada nodo en el orden de la consulta; los nodos sin filas quedan con catálogo vacío
+    Map<Integer, Map<String, CategoryDTO>> categoriesByNode = new HashMap<>();
+    idHierarchies.forEach(id -> categoriesByNode.put(id, new LinkedHashMap<>()));
+    if (!idHierarchies.isEmpty()) {
+      MapSqlParameterSource params = new MapSqlParameterSource()
+          .addValue(ID_HIERARCHIES, idHierarchies.toArray(Integer[]::new))
+          .addValue(STATUS, ACTIVE);
+      try {
+        readYourWritesRouter.readerFor(idHierarchies).query(GET_GROUPED_PARAMETERS_BATCH, params, (rs) ->
+            addCatalogRow(rs, categoriesByNode.computeIfAbsent(rs.getInt("idhierarchy"), k -> new LinkedHashMap<>())));
+      } catch (DataAccessException e) {
+        log.error("Error al obtener los catálogos de parámetros. idHierarchies: {}, Error: {}", idHierarchies, e.getMessage(), e);
+        throw new RuntimeException("Error al obtener el catálogo de parámetros", e);
+      }
+    }
+    Map<Integer, GroupedParameterDTO> result = new HashMap<>();
+    categoriesByNode.forEach((idHierarchy, categories) -> {
+      GroupedParameterDTO catalog = new GroupedParameterDTO();
+      catalog.setIdHierarchy(idHierarchy);
+      catalog.setCategories(new ArrayList<>(categories.values()));
+      result.put(idHierarchy, catalog);
+    });
     return result;
   }
 
+  private static void addCatalogRow(ResultSet rs, Map<String, CategoryDTO> categories) throws SQLException {
+    String categoryName = intern(rs.getString("category_name"));
+    CategoryDTO category = categories.get(categoryName);
+    if (category == null) {
+      category = getCategory(rs, categoryName);
+      categories.put(categoryName, category);
+    }
+    category.getParameterDTOS().add(getGroupParameter(rs));
+  }
+
   @Override
   public List<TranslateDTO> getTranslate(String category, String language) {
     MapSqlParameterSource params = new MapSqlParameterSource();
@@ -69,37 +129,47 @@ public class ParameterRepositoryImpl implements ParametersRepository {
     }
   }
 
-  private static CategoryDTO getCategory(ResultSet rs, GroupedParameterDTO result, String categoryName) {
-    CategoryDTO category = null;
+  @Override
+  public Map<String, Map<String, List<TranslateDTO>>> getAllTranslate(List<String> categories) {
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue("categories", categories);
+    Map<String, Map<String, List<TranslateDTO>>> result = new HashMap<>();
+    readOnlyJdbcTemplate.query(GET_ALL_HIERARCHY_TRANSLATE_PARAMETERS, params, (rs) -> {
+      String language = rs.getString("language_code");
+      result.computeIfAbsent(rs.getString("category"), k -> new HashMap<>())
+          .computeIfAbsent(language == null ? "" : language.toLowerCase(Locale.ROOT), k -> new ArrayList<>())
+          .add(TranslateDTO.builder()
+              .codeMessage(rs.getString("code_message"))
+              .message(rs.getString("message"))
+              .build());
+    });
+    return result;
+  }
+
+  private static CategoryDTO getCategory(ResultSet rs, String categoryName) {
+    CategoryDTO category;
     try {
-      category = result.getCategories().stream()
-          .filter(c -> c.getName().equals(categoryName))
-          .findFirst()
-          .orElseGet(() -> {
-            CategoryDTO newCategory;
-            try {
-              newCategory = CategoryDTO.builder()
-                  .name(categoryName)
-                  .nameEN(categoryName)
-                  .description(rs.getString("category_description"))
-                  .build();
-            } catch (SQLException e) {
-              log.error("No se tiene datos para categoria descripcion. Category: {}, Error: {}", categoryName, e.getMessage(), e);
-              newCategory = new CategoryDTO();
-            }
-            result.getCategories().add(newCategory);
-            newCategory.setParameterDTOS(new ArrayList<>());
-            return newCategory;
-          });
-    } catch (Exception e) {
-      log.error("Error al obtener la categoría. Category: {}, Error: {}", categoryName, e.getMessage(), e);
-      throw new RuntimeException("Error al obtener la categoría", e);
+      category = CategoryDTO.builder()
+          .name(categoryName)
+          .nameEN(categoryName)
+          .description(intern(rs.getString("category_description")))
+          .build();
+    } catch (SQLException e) {
+      log.error("No se tiene datos para categoria descripcion. Category: {}, Error: {}", categoryName, e.getMessage(), e);
+      category = new CategoryDTO();
     }
+    category.setParameterDTOS(new ArrayList<>());
     return category;
   }
 
+  // Los catálogos en cache repiten los mismos textos de categoría y parámetro entre nodos
+  private static String intern(String value) {
+    return value != null ? CATALOG_STRINGS.intern(value) : null;
+  }
+
   private static ParameterDTO getGroupParameter(ResultSet rs) throws SQLException {
     try {
+      String parameterName = intern(rs.getString("parameter_name"));
       return ParameterDTO.builder()
           .idSystem(rs.getInt("idsystem"))
           .idParameter(rs.getInt("idparameter"))
@@ -107,10 +177,10 @@ public class ParameterRepositoryImpl implements ParametersRepository {
           .idHierarchy(rs.getInt("idhierarchy"))
           .status(rs.getInt(STATUS))
           .maxElements(rs.getInt("max_properties"))
-          .name(rs.getString("parameter_name"))
-          .nameEN(rs.getString("parameter_name"))
+          .name(parameterName)
+          .nameEN(parameterName)
           .spread(rs.getInt("spread"))
-          .description(rs.getString("parameter_description"))
+          .description(intern(rs.getString("parameter_description")))
           .build();
     } catch (SQLException e) {
       log.error("Error al mapear parámetro del grupo. Error: {}", e.getMessage(), e);
@@ -123,26 +193,7 @@ public class ParameterRepositoryImpl implements ParametersRepository {
                                                          Integer size, Integer page, String query) {
     ResponseDataParameterDTO response = new ResponseDataParameterDTO();
     try {
-      List<ResponseParameterDTO> lista = readOnlyJdbcTemplate.query(query, params, (rs, rowNum) -> {
-        ResponseParameterDTO dto = new ResponseParameterDTO();
-        String attributes = rs.getString("hierarchy_attributes");
-        if (attributes != null) {
-          try {
-            dto = mapper.readValue(attributes, ResponseParameterDTO.class);
-          } catch (JsonProcessingException e) {
-            log.error("No tiene datos en atributos. Attributes: {}, Error: {}", attributes, e.getMessage(), e);
-          }
-        }
-        dto.setIdSystem(rs.getInt("idSystem"));
-        dto.setIdProperty(rs.getInt("idProperty"));
-        dto.setIdParameter(rs.getInt("idParamater"));
-        dto.setIdHierarchy(rs.getInt("idHierarchy"));
-        dto.setId(rs.getInt("id"));
-        dto.setStatus(rs.getInt(STATUS));
-        dto.setDeleteParameter(2);
-        dto.setSpreadParameters(rs.getInt("spread"));
-        return dto;
-      });
+      List<ResponseParameterDTO> lista = reader(params).query(query, params, (rs, rowNum) -> getParameterHierarchy(rs));
       response.setData(lista);
       response.setPage(page);
       response.setSize(size);
@@ -155,10 +206,101 @@ public class ParameterRepositoryImpl implements ParametersRepository {
     return response;
   }
 
+  @Override
+  public ResponseDataParameterDTO getParametersHierarchyPage(MapSqlParameterSource params, Integer size, Integer page, boolean exactCount) {
+    ResponseDataParameterDTO response = new ResponseDataParameterDTO();
+    response.setPage(page);
+    response.setSize(size);
+    try {
+      if (exactCount) {
+        int[] total = {0};
+        List<ResponseParameterDTO> lista = reader(params).query(
+            CALL_GET_PARAMETERS_HIERARCHY_WITH_TOTAL + " " + HIERARCHY_PROPERTY_ID_PAGINATION, params, (rs, rowNum) -> {
+              total[0] = rs.getInt("total_elements");
+              return getParameterHierarchy(rs);
+            });
+        // Una página fuera de rango no trae filas, y con ellas tampoco el total
+        if (lista.isEmpty() && page != null && page > 1) {
+          Integer count = getForInt(CALL_COUNT_PARAMETERS_HIERARCHY, params);
+          total[0] = count != null ? count : 0;
+        }
+        response.setData(lista);
+        response.setTotalElements(total[0]);
+        response.setTotalPages(total[0] / size + (total[0] % size > 0 ? 1 : 0));
+      } else {
+        List<ResponseParameterDTO> lista = reader(params).query(
+            CALL_GET_PARAMETERS_HIERARCHY + " " + HIERARCHY_PROPERTY_ID_PAGINATION_LOOKAHEAD, params, (rs, rowNum) -> getParameterHierarchy(rs));
+        boolean hasNext = lista.size() > size;
+        response.setData(hasNext ? new ArrayList<>(lista.subList(0, size)) : lista);
+        response.setHasNext(hasNext);
+      }
+    } catch (DataAccessException e) {
+      log.error("Error al obtener la página de parámetros. Params: {}, Error: {}", params, e.getMessage(), e);
+      throw new RuntimeException("Error al obtener la jerarquía de parámetros", e);
+    }
+    return response;
+  }
+
+  @Override
+  public long streamParametersSubtree(Integer idHierarchy, int fetchSize, Consumer<ResponseParameterDTO> consumer) {
+    MapSqlParameterSource params = new MapSqlParameterSource(ID_HIERARCHY, idHierarchy);
+    ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement(EXPORT_PARAMETERS_SUBTREE);
+    String sql = NamedParameterUtils.substituteNamedParameters(parsedSql, params);
+    Object[] values = NamedParameterUtils.buildValueArray(parsedSql, params, null);
+    // PostgreSQL solo respeta el fetch size dentro de una transacción (autocommit apagado)
+    Long rows = readYourWritesRouter.reader(idHierarchy).getJdbcTemplate().execute((ConnectionCallback<Long>) con -> {
+      boolean autoCommit = con.getAutoCommit();
+      con.setAutoCommit(false);
+      try (PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+        ps.setFetchSize(fetchSize);
+        new ArgumentPreparedStatementSetter(values).setValues(ps);
+        long count = 0;
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next()) {
+            consumer.accept(getParameterHierarchy(rs));
+            count++;
+          }
+        }
+        return count;
+      } finally {
+        con.rollback();
+        con.setAutoCommit(autoCommit);
+      }
+    });
+    return rows != null ? rows : 0;
+  }
+
+  // Lecturas de un nodo recién escrito van al primario hasta que la réplica lo alcance
+  private NamedParameterJdbcTemplate reader(MapSqlParameterSource params) {
+    Object idHierarchy = params.hasValue(ID_HIERARCHY) ? params.getValue(ID_HIERARCHY) : null;
+    return readYourWritesRouter.reader(idHierarchy instanceof Integer id ? id : null);
+  }
+
+  private ResponseParameterDTO getParameterHierarchy(ResultSet rs) throws SQLException {
+    ResponseParameterDTO dto = new ResponseParameterDTO();
+    String attributes = rs.getString("hierarchy_attributes");
+    if (attributes != null) {
+      try {
+        dto = mapper.readValue(attributes, ResponseParameterDTO.class);
+      } catch (JsonProcessingException e) {
+        log.error("No tiene datos en atributos. Attributes: {}, Error: {}", attributes, e.getMessage(), e);
+      }
+    }
+    dto.setIdSystem(rs.getInt("idSystem"));
+    dto.setIdProperty(rs.getInt("idProperty"));
+    dto.setIdParameter(rs.getInt("idParamater"));
+    dto.setIdHierarchy(rs.getInt("idHierarchy"));
+    dto.setId(rs.getInt("id"));
+    dto.setStatus(rs.getInt(STATUS));
+    dto.setDeleteParameter(2);
+    dto.setSpreadParameters(rs.getInt("spread"));
+    return dto;
+  }
+
   @Override
   public Integer getForObjectInt(String query, MapSqlParameterSource pathParams) {
     try {
-      return readOnlyJdbcTemplate.queryForObject(query, pathParams, (rs, rowNum) ->
+      return reader(pathParams).queryForObject(query, pathParams, (rs, rowNum) ->
           rs.getObject(1, Integer.class));
     } catch (DataAccessException e) {
       log.error("Error en getForObjectInt. Query: {}, Params: {}, Error: {}", query, pathParams, e.getMessage(), e);
@@ -169,7 +311,7 @@ public class ParameterRepositoryImpl implements ParametersRepository {
   @Override
   public Integer getForInt(String query, MapSqlParameterSource pathParams) {
     try {
-      return readOnlyJdbcTemplate.queryForObject(query, pathParams, (rs, rowNum) ->
+      return reader(pathParams).queryForObject(query, pathParams, (rs, rowNum) ->
           rs.getInt(1));
     } catch (DataAccessException e) {
       log.error("Error en getForInt. Query: {}, Params: {}, Error: {}", query, pathParams, e.getMessage(), e);
@@ -203,7 +345,7 @@ public class ParameterRepositoryImpl implements ParametersRepository {
           property.setStatus(rs.getInt(STATUS));
           String jsonAttributes = rs.getString("property_attributes");
           if (jsonAttributes != null) {
-            property.setElements(converterJsonToParameterProperty(jsonAttributes));
+            property.setElements(templateAttributesCache.getElements(property.getIdParameter(), jsonAttributes));
           }
         } catch (SQLException e) {
           log.error("Error al mapear property en getTemplate. Error: {}", e.getMessage(), e);
@@ -216,16 +358,96 @@ public class ParameterRepositoryImpl implements ParametersRepository {
     }
   }
 
-  private List<ElementoParameterPropertyDTO> converterJsonToParameterProperty(String json) {
+  @Override
+  public List<ParameterPropertyObjectDTO> getTemplateByNodeType(Integer nodeTypeId, Integer idParameter) {
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue(NODE_TYPE, nodeTypeId)
+        .addValue(ID_PARAMETER, idParameter);
     try {
-      Gson gson = new Gson();
-      return gson.fromJson(json, new TypeToken<List<ElementoParameterPropertyDTO>>() {}.getType());
-    } catch (Exception e) {
-      log.error("Error al convertir JSON a ElementoParameterPropertyDTO. JSON: {}, Error: {}", json, e.getMessage(), e);
-      return new ArrayList<>();
+      return readOnlyJdbcTemplate.query(CALL_GET_PARAMETERS_TEMPLATE_BY_NODE_TYPE, params, (rs, rowNum) -> {
+        ParameterPropertyObjectDTO property = new ParameterPropertyObjectDTO();
+        property.setIdSystem(rs.getInt("idSystem"));
+        property.setIdParameter(rs.getInt("idParameter"));
+        String jsonAttributes = rs.getString("property_attributes");
+        if (jsonAttributes != null) {
+          property.setElements(templateAttributesCache.getElements(property.getIdParameter(), jsonAttributes));
+        }
+        return property;
+      });
+    } catch (DataAccessException e) {
+      log.error("Error en getTemplateByNodeType. Params: {}, Error: {}", params, e.getMessage(), e);
+      return null;
     }
   }
 
+  @Override
+  public HierarchyNodeDTO getHierarchyNode(Integer idHierarchy) {
+    try {
+      List<HierarchyNodeDTO> nodes = readOnlyJdbcTemplate.query(GET_HIERARCHY_NODE, new MapSqlParameterSource(ID_HIERARCHY, idHierarchy),
+          (rs, rowNum) -> HierarchyNodeDTO.builder()
+              .idHierarchy(rs.getInt(ID_HIERARCHY))
+              .nodeTypeId(rs.getInt("nodeTypeId"))
+              .status(rs.getInt(STATUS))
+              .build());
+      return nodes.isEmpty() ? null : nodes.get(0);
+    } catch (DataAccessException e) {
+      log.error("Error en getHierarchyNode. idHierarchy: {}, Error: {}", idHierarchy, e.getMessage(), e);
+      return null;
+    }
+  }
+
+  @Override
+  public List<HierarchyNodeDTO> getHierarchyTree(Integer afterId) {
+    MapSqlParameterSource params = new MapSqlParameterSource().addValue(ID_HIERARCHY, afterId, Types.INTEGER);
+    return readOnlyJdbcTemplate.query(GET_HIERARCHY_TREE, params, (rs, rowNum) -> HierarchyNodeDTO.builder()
+        .idHierarchy(rs.getInt("hierarchy_id"))
+        .idParent(rs.getInt("parent_id"))
+        .nodeTypeId(rs.getInt("node_type_id"))
+        .status(rs.getInt(STATUS))
+        .build());
+  }
+
+  @Override
+  public List<Integer> getAncestors(Integer idHierarchy) {
+    try {
+      return readOnlyJdbcTemplate.query(GET_HIERARCHY_ANCESTORS, new MapSqlParameterSource(ID_HIERARCHY, idHierarchy),
+          (rs, rowNum) -> rs.getInt("hierarchy_id"));
+    } catch (DataAccessException e) {
+      log.error("Error en getAncestors. idHierarchy: {}, Error: {}", idHierarchy, e.getMessage(), e);
+      throw new RuntimeException("Error al obtener los ancestros del nodo", e);
+    }
+  }
+
+  @Override
+  public Map<Integer, List<ParameterDefinition>> getParameterDefinitions(Collection<Integer> idHierarchies) {
+    Map<Integer, List<ParameterDefinition>> result = new HashMap<>();
+    idHierarchies.forEach(id -> result.put(id, new ArrayList<>()));
+    if (idHierarchies.isEmpty()) {
+      return result;
+    }
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue(ID_HIERARCHIES, idHierarchies.toArray(Integer[]::new))
+        .addValue(STATUS, ACTIVE);
+    // Filas ordenadas por nodo, parámetro y propiedad: cada definición es un tramo consecutivo
+    ParameterDefinition[] current = {null};
+    readYourWritesRouter.readerFor(idHierarchies).query(GET_PARAMETER_DEFINITIONS, params, (rs) -> {
+      Integer idHierarchy = rs.getInt("idHierarchy");
+      Integer idSystem = rs.getInt("idSystem");
+      Integer idProperty = rs.getInt("idProperty");
+      ParameterDefinition definition = current[0];
+      if (definition == null || !definition.idHierarchy().equals(idHierarchy)
+          || !definition.idSystem().equals(idSystem) || !definition.idProperty().equals(idProperty)) {
+        definition = new ParameterDefinition(idHierarchy, idSystem, idProperty, rs.getInt("parameter_status"), new ArrayList<>());
+        result.computeIfAbsent(idHierarchy, k -> new ArrayList<>()).add(definition);
+        current[0] = definition;
+      }
+      if (rs.getObject("id") != null) {
+        definition.values().add(getParameterHierarchy(rs));
+      }
+    });
+    return result;
+  }
+
   @Override
   public Integer createObject(String query, MapSqlParameterSource map) {
     try {
@@ -245,6 +467,100 @@ public class ParameterRepositoryImpl implements ParametersRepository {
       return null;
     }
   }
+  @Override
+  public List<Integer> createObjectsBatch(String query, List<MapSqlParameterSource> batch, String keyColumn) {
+    KeyHolder keyHolder = new GeneratedKeyHolder();
+    primaryJdbcTemplate.batchUpdate(query, batch.toArray(new SqlParameterSource[0]), keyHolder, new String[]{keyColumn});
+    return keyHolder.getKeyList().stream()
+        .map(keys -> ((Number) keys.get(keyColumn)).intValue())
+        .toList();
+  }
+
+  @Override
+  public int[] updateObjectsBatch(String query, List<MapSqlParameterSource> batch) {
+    return primaryJdbcTemplate.batchUpdate(query, batch.toArray(new SqlParameterSource[0]));
+  }
+
+  @Override
+  public Map<Integer, Integer> getStatusHierarchies(Collection<Integer> idHierarchies) {
+    Map<Integer, Integer> result = new HashMap<>();
+    if (idHierarchies.isEmpty()) {
+      return result;
+    }
+    MapSqlParameterSource params = new MapSqlParameterSource("idHierarchies", idHierarchies);
+    readOnlyJdbcTemplate.query(GET_STATUS_HIERARCHIES, params, (rs) -> {
+      result.put(rs.getInt("hierarchy_id"), rs.getInt(STATUS));
+    });
+    return result;
+  }
+
+  @Override
+  public Map<HierarchyParameterKey, Integer> getHierarchyParameterIds(Collection<HierarchyParameterKey> keys) {
+    Map<HierarchyParameterKey, Integer> result = new HashMap<>();
+    if (keys.isEmpty()) {
+      return result;
+    }
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue("idHierarchies", keys.stream().map(HierarchyParameterKey::idHierarchy).toArray(Integer[]::new))
+        .addValue("idSystems", keys.stream().map(HierarchyParameterKey::idSystem).toArray(Integer[]::new))
+        .addValue("idProperties", keys.stream().map(HierarchyParameterKey::idProperty).toArray(Integer[]::new));
+    readOnlyJdbcTemplate.query(GET_ID_HIERARCHY_PARAMETERS_BULK, params, (rs) -> {
+      result.put(new HierarchyParameterKey(rs.getInt("idHierarchy"), rs.getInt("idSystem"), rs.getInt("idProperty")),
+          rs.getObject("hierarchy_parameter_id", Integer.class));
+    });
+    return result;
+  }
+
+  @Override
+  public int[] getSpreadLevels(Integer idHierarchy) {
+    MapSqlParameterSource params = new MapSqlParameterSource(ID_HIERARCHY, idHierarchy);
+    List<int[]> levels = primaryJdbcTemplate.query(GET_SPREAD_LEVELS, params, (rs, rowNum) ->
+        new int[]{rs.getInt("root_level"), rs.getInt("max_level")});
+    return levels.isEmpty() ? null : levels.get(0);
+  }
+
+  @Override
+  public SpreadJobDTO getSpreadJob(UUID jobId) {
+    List<SpreadJobDTO> jobs = primaryJdbcTemplate.query(GET_SPREAD_JOB, new MapSqlParameterSource("jobId", jobId),
+        (rs, rowNum) -> getSpreadJob(rs));
+    return jobs.isEmpty() ? null : jobs.get(0);
+  }
+
+  @Override
+  public List<SpreadJobDTO> getResumableSpreadJobs(String owner, long staleSeconds) {
+    return primaryJdbcTemplate.query(GET_RESUMABLE_SPREAD_JOBS, new MapSqlParameterSource()
+            .addValue("owner", owner)
+            .addValue("staleSeconds", staleSeconds),
+        (rs, rowNum) -> getSpreadJob(rs));
+  }
+
+  @Override
+  public Integer lockSpreadJob(UUID jobId, String owner) {
+    List<Integer> levels = primaryJdbcTemplate.query(LOCK_SPREAD_JOB, new MapSqlParameterSource()
+            .addValue("jobId", jobId)
+            .addValue("owner", owner),
+        (rs, rowNum) -> rs.getInt("last_level"));
+    return levels.isEmpty() ? null : levels.get(0);
+  }
+
+  private static SpreadJobDTO getSpreadJob(ResultSet rs) throws SQLException {
+    return SpreadJobDTO.builder()
+        .jobId(rs.getObject("job_id", UUID.class))
+        .idHierarchy(rs.getInt("hierarchy_id"))
+        .idSystem(rs.getObject("parameter_id", Integer.class))
+        .status(rs.getString(STATUS))
+        .rootLevel(rs.getInt("root_level"))
+        .maxLevel(rs.getInt("max_level"))
+        .lastLevel(rs.getInt("last_level"))
+        .deletedRows(rs.getLong("deleted_rows"))
+        .insertedParameters(rs.getLong("inserted_parameters"))
+        .insertedProperties(rs.getLong("inserted_properties"))
+        .errorMessage(rs.getString("error_message"))
+        .createdAt(rs.getObject("created_at", java.time.LocalDateTime.class))
+        .updatedAt(rs.getObject("updated_at", java.time.LocalDateTime.class))
+        .build();
+  }
+
   @Override
   public boolean hasAccess(String user, String roleId, String module, String activity) {
     MapSqlParameterSource params = new MapSqlParameterSource()
@@ -256,4 +572,24 @@ public class ParameterRepositoryImpl implements ParametersRepository {
     Integer status = getForInt(GET_ACCESS_CONTROLLER, params);
     return status >0;
   }
+
+  @Override
+  public void bumpParametersVersion(Integer idHierarchy) {
+    primaryJdbcTemplate.update(BUMP_PARAMETERS_VERSION, new MapSqlParameterSource(ID_HIERARCHY, idHierarchy));
+  }
+
+  @Override
+  public ParametersVersion getParametersVersion(Integer idHierarchy) {
+    // Misma réplica o primario que la lectura del nodo, para no anunciar una versión que la réplica aún no tiene
+    return readYourWritesRouter.reader(idHierarchy).queryForObject(GET_PARAMETERS_VERSION,
+        new MapSqlParameterSource(ID_HIERARCHY, idHierarchy),
+        (rs, rowNum) -> new ParametersVersion(rs.getLong("node_version"), rs.getLong("all_version")));
+  }
+
+  @Override
+  public void notifyChange(String channel, String payload) {
+    primaryJdbcTemplate.queryForList(NOTIFY_PARAMETERS_CHANGED, new MapSqlParameterSource()
+        .addValue("channel", channel)
+        .addValue("payload", payload));
+  }
 }
@@ -0,0 +1,223 @@
+package com.smartpayment.nxt.hierarchy.parameters.repository.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.GET_PRIMARY_WAL_LSN;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.GET_REPLICA_REPLAY_LSN;
+
+/**
+ * Lectura de lo propio escrito: después de confirmar una escritura sobre un nodo se
+ * guarda la posición del WAL del primario, y las lecturas de ese nodo van al
+ * primario hasta que la réplica la haya aplicado. Las escrituras que afectan a
+ * descendientes (propagación) marcan todos los nodos. La marca expira en max-wait
+ * para que una réplica muy atrasada no deje todo el tráfico en el primario.
+ */
+@Slf4j
+@Component
+public class ReadYourWritesRouter {
+  public static final String METRIC_NAME = "hierarchy.replica";
+  /** Llave de la marca que aplica a todos los nodos; los hierarchy_id válidos son mayores que cero */
+  private static final Integer ALL_NODES = 0;
+  /** Posición usada cuando no se pudo leer el WAL: se lee del primario hasta que expire la marca */
+  private static final long UNKNOWN_LSN = Long.MAX_VALUE;
+
+  private final NamedParameterJdbcTemplate primaryJdbcTemplate;
+  private final NamedParameterJdbcTemplate readOnlyJdbcTemplate;
+  private final boolean enabled;
+  private final long lagCheckNanos;
+  private final Cache<Integer, Long> pendingLsn;
+  private final Counter replicaReads;
+  private final Counter primaryReads;
+  private volatile ReplicaSample sample;
+
+  public ReadYourWritesRouter(@Qualifier("primaryJdbcTemplate") NamedParameterJdbcTemplate primaryJdbcTemplate,
+                              @Qualifier("readOnlyJdbcTemplate") NamedParameterJdbcTemplate readOnlyJdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${hierarchy.replica.read-your-writes.enabled:true}") boolean enabled,
+                              @Value("${hierarchy.replica.read-your-writes.max-wait:PT30S}") Duration maxWait,
+                              @Value("${hierarchy.replica.read-your-writes.lag-check-interval:PT0.2S}") Duration lagCheckInterval) {
+    this.primaryJdbcTemplate = primaryJdbcTemplate;
+    this.readOnlyJdbcTemplate = readOnlyJdbcTemplate;
+    this.enabled = enabled;
+    this.lagCheckNanos = lagCheckInterval.toNanos();
+    this.sample = new ReplicaSample(0, 0, 0, System.nanoTime() - lagCheckNanos);
+    this.pendingLsn = Caffeine.newBuilder()
+        .expireAfterWrite(maxWait)
+        .build();
+    this.replicaReads = reads(meterRegistry, "replica");
+    this.primaryReads = reads(meterRegistry, "primary");
+    Gauge.builder(METRIC_NAME + ".lag.seconds", () -> sample.lagSeconds())
+        .description("Atraso de la réplica según la última transacción aplicada")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    Gauge.builder(METRIC_NAME + ".lag.bytes", () -> sample.lagBytes())
+        .description("Bytes de WAL escritos por este servicio y aún no aplicados por la réplica")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    Gauge.builder(METRIC_NAME + ".pending.nodes", pendingLsn, cache -> cache.estimatedSize())
+        .description("Nodos cuyas lecturas van al primario en espera de la réplica")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Registra una escritura confirmada sobre un nodo. Se llama después del commit.
+   * @param idHierarchy hierarchy_id del nodo escrito
+   */
+  public void markWritten(Integer idHierarchy) {
+    if (enabled && idHierarchy != null) {
+      pendingLsn.asMap().merge(idHierarchy, primaryLsn(), Math::max);
+    }
+  }
+
+  /**
+   * Igual que markWritten para varios nodos, con una sola lectura de la posición del WAL.
+   * @param idHierarchies hierarchy_id de los nodos escritos
+   */
+  public void markWritten(Collection<Integer> idHierarchies) {
+    if (enabled && !idHierarchies.isEmpty()) {
+      long lsn = primaryLsn();
+      idHierarchies.forEach(id -> pendingLsn.asMap().merge(id, lsn, Math::max));
+    }
+  }
+
+  /**
+   * Registra una escritura confirmada que afecta a todos los nodos (propagación).
+   */
+  public void markAllWritten() {
+    if (enabled) {
+      pendingLsn.asMap().merge(ALL_NODES, primaryLsn(), Math::max);
+    }
+  }
+
+  /**
+   * Template para leer un nodo: la réplica, salvo que aún no aplique la última escritura sobre el nodo.
+   * @param idHierarchy hierarchy_id del nodo; null solo considera las escrituras sobre todos los nodos
+   * @return primaryJdbcTemplate o readOnlyJdbcTemplate
+   */
+  public NamedParameterJdbcTemplate reader(Integer idHierarchy) {
+    return readerFor(idHierarchy != null ? List.of(idHierarchy) : List.of());
+  }
+
+  /**
+   * Template para leer varios nodos en una consulta: el primario si la réplica aún no aplica
+   * la última escritura sobre alguno de ellos.
+   * @param idHierarchies hierarchy_id de los nodos leídos
+   * @return primaryJdbcTemplate o readOnlyJdbcTemplate
+   */
+  public NamedParameterJdbcTemplate readerFor(Collection<Integer> idHierarchies) {
+    if (!enabled || pendingLsn.asMap().isEmpty()) {
+      replicaReads.increment();
+      return readOnlyJdbcTemplate;
+    }
+    Map<Integer, Long> nodeLsn = pendingLsn.getAllPresent(idHierarchies);
+    Long allLsn = pendingLsn.getIfPresent(ALL_NODES);
+    if (nodeLsn.isEmpty() && allLsn == null) {
+      replicaReads.increment();
+      return readOnlyJdbcTemplate;
+    }
+    long replayed = replica().replayLsn();
+    if (allLsn != null && allLsn > replayed || nodeLsn.values().stream().anyMatch(lsn -> lsn > replayed)) {
+      primaryReads.increment();
+      return primaryJdbcTemplate;
+    }
+    // La réplica ya alcanzó las marcas; se quitan solo si no fueron reemplazadas por otras más nuevas
+    nodeLsn.forEach((id, lsn) -> pendingLsn.asMap().remove(id, lsn));
+    if (allLsn != null) {
+      pendingLsn.asMap().remove(ALL_NODES, allLsn);
+    }
+    replicaReads.increment();
+    return readOnlyJdbcTemplate;
+  }
+
+  private long primaryLsn() {
+    try {
+      List<String> lsn = primaryJdbcTemplate.query(GET_PRIMARY_WAL_LSN, new MapSqlParameterSource(),
+          (rs, rowNum) -> rs.getString("lsn"));
+      return lsn.isEmpty() || lsn.get(0) == null ? UNKNOWN_LSN : parseLsn(lsn.get(0));
+    } catch (DataAccessException | IllegalArgumentException e) {
+      log.warn("No se pudo leer la posición del WAL del primario, lecturas al primario hasta expirar la marca. Error: {}", e.getMessage());
+      return UNKNOWN_LSN;
+    }
+  }
+
+  /**
+   * Muestra periódica del atraso de la réplica para las métricas, aun sin lecturas en espera.
+   */
+  @Scheduled(fixedDelayString = "${hierarchy.replica.lag-sample-interval:PT15S}",
+      initialDelayString = "${hierarchy.replica.lag-sample-interval:PT15S}")
+  public void sampleLag() {
+    if (enabled) {
+      refresh(sample, System.nanoTime());
+    }
+  }
+
+  private ReplicaSample replica() {
+    ReplicaSample current = sample;
+    long now = System.nanoTime();
+    return now - current.takenAt() < lagCheckNanos ? current : refresh(current, now);
+  }
+
+  private ReplicaSample refresh(ReplicaSample current, long now) {
+    long latestWrite = pendingLsn.asMap().values().stream()
+        .mapToLong(Long::longValue)
+        .filter(lsn -> lsn != UNKNOWN_LSN)
+        .max()
+        .orElse(0);
+    ReplicaSample refreshed;
+    try {
+      List<ReplicaSample> rows = readOnlyJdbcTemplate.query(GET_REPLICA_REPLAY_LSN, new MapSqlParameterSource(), (rs, rowNum) -> {
+        String lsn = rs.getString("lsn");
+        // Sin replay la conexión de lectura apunta al primario: siempre está al día
+        long replayed = lsn != null ? parseLsn(lsn) : UNKNOWN_LSN;
+        double lagSeconds = rs.getDouble("lag_seconds");
+        return new ReplicaSample(replayed, Math.max(lagSeconds, 0), Math.max(latestWrite - replayed, 0), now);
+      });
+      refreshed = rows.isEmpty() ? new ReplicaSample(0, current.lagSeconds(), current.lagBytes(), now) : rows.get(0);
+    } catch (DataAccessException | IllegalArgumentException e) {
+      log.warn("No se pudo leer la posición del WAL de la réplica. Error: {}", e.getMessage());
+      refreshed = new ReplicaSample(0, current.lagSeconds(), current.lagBytes(), now);
+    }
+    sample = refreshed;
+    return refreshed;
+  }
+
+  /**
+   * Convierte un pg_lsn textual (por ejemplo 16/B374D848) en un número comparable.
+   * @param lsn posición del WAL
+   * @return posición como entero de 64 bits
+   */
+  static long parseLsn(String lsn) {
+    int slash = lsn.indexOf('/');
+    if (slash <= 0) {
+      throw new IllegalArgumentException("LSN invalido: " + lsn);
+    }
+    return (Long.parseLong(lsn.substring(0, slash), 16) << 32) | Long.parseLong(lsn.substring(slash + 1), 16);
+  }
+
+  private static Counter reads(MeterRegistry meterRegistry, String target) {
+    return Counter.builder(METRIC_NAME + ".reads")
+        .description("Lecturas por destino; target=primary son las desviadas en espera de la réplica")
+        .tag("target", target)
+        .register(meterRegistry);
+  }
+
+  private record ReplicaSample(long replayLsn, double lagSeconds, long lagBytes, long takenAt) {
+  }
+}
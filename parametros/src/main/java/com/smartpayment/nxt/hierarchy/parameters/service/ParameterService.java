@@ -1,10 +1,15 @@
 package com.smartpayment.nxt.hierarchy.parameters.service;
+import com.smartpayment.nxt.hierarchy.parameters.dto.BulkItemResultDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.EffectiveParameterDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.GroupedParameterDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ParameterDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ParameterPropertyObjectDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseDataParameterDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.SpreadDiffResultDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.TranslateDTO;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -41,6 +46,16 @@ public interface ParameterService {
   CompletableFuture<List<ParameterPropertyObjectDTO>> getTemplate(Integer hierarchyId, Integer parameterId);
 
 
+  /**
+   * Parámetros efectivos del nodo por herencia: los propios y, para los que no define,
+   * los del ancestro más cercano que los define.
+   *
+   * @param idHierarchy the hierarchy ID
+   * @param idSystem    the system ID, null para todos los parámetros
+   * @return a list of EffectiveParameterDTO
+   */
+  CompletableFuture<List<EffectiveParameterDTO>> getEffectiveParameters(Integer idHierarchy, Integer idSystem);
+
   /**
    * Retrieves a list of parameters
    *
@@ -51,7 +66,71 @@ public interface ParameterService {
    * @param size        the page size
    * @return a ResponseDataParameterDTO containing the parameters
    */
-  CompletableFuture<ResponseDataParameterDTO> getDataHierarchy(Integer idHierarchy, Integer idSystem, Integer idProperty, Integer page, Integer size);
+  default CompletableFuture<ResponseDataParameterDTO> getDataHierarchy(Integer idHierarchy, Integer idSystem, Integer idProperty, Integer page, Integer size) {
+    return getDataHierarchy(idHierarchy, idSystem, idProperty, page, size, true);
+  }
+
+  /**
+   * Retrieves a list of parameters and its total in a single query
+   *
+   * @param idHierarchy the hierarchy ID
+   * @param idSystem    the system ID
+   * @param idProperty  the property ID
+   * @param page        the page number
+   * @param size        the page size
+   * @param exactCount  false to skip the total and return hasNext instead of totalPages
+   * @return a ResponseDataParameterDTO containing the parameters
+   */
+  CompletableFuture<ResponseDataParameterDTO> getDataHierarchy(Integer idHierarchy, Integer idSystem, Integer idProperty, Integer page, Integer size, boolean exactCount);
+
+  /**
+   * Retrieves a list of parameters using keyset (cursor) pagination
+   *
+   * @param idHierarchy the hierarchy ID
+   * @param idSystem    the system ID
+   * @param idProperty  the property ID
+   * @param cursor      the nextCursor of the previous page, empty for the first page
+   * @param size        the page size
+   * @return a ResponseDataParameterDTO with the page and the nextCursor, without totals
+   */
+  CompletableFuture<ResponseDataParameterDTO> getDataHierarchyByCursor(Integer idHierarchy, Integer idSystem, Integer idProperty, String cursor, Integer size);
+
+  /**
+   * ETag of the parameters of a node, derived from its parameters version. Changes with
+   * every write to the node or propagation, and at least once per hierarchy.etag.max-age.
+   *
+   * @param idHierarchy the hierarchy ID
+   * @return a CompletableFuture with the ETag without quotes, or null when the ID is invalid or the version is not available
+   */
+  CompletableFuture<String> getParametersETag(Integer idHierarchy);
+
+  /**
+   * Get the catalogs of several nodes with one query for the nodes not in cache.
+   *
+   * @param ids hierarchy IDs, repeated IDs are returned once
+   * @return one catalog per node, in the requested order
+   */
+  CompletableFuture<List<GroupedParameterDTO>> getCatalogs(List<Integer> ids);
+
+  /**
+   * Writes the catalogs as NDJSON (one GroupedParameterDTO per line).
+   *
+   * @param catalogs the catalogs returned by getCatalogs
+   * @param out      the output stream, left open
+   * @return the number of written catalogs
+   */
+  long writeCatalogs(List<GroupedParameterDTO> catalogs, OutputStream out) throws IOException;
+
+  /**
+   * Writes every parameter and property of the node and its descendants as
+   * NDJSON (one ResponseParameterDTO per line). Memory use does not depend on
+   * the size of the subtree.
+   *
+   * @param idHierarchy the root hierarchy ID
+   * @param out         the output stream, left open
+   * @return the number of exported rows
+   */
+  long exportParameters(Integer idHierarchy, OutputStream out) throws IOException;
 
   /**
    * Create new Parameter
@@ -61,6 +140,16 @@ public interface ParameterService {
    */
   CompletableFuture<ResponseParameterDTO> create(ResponseParameterDTO dto);
 
+  /**
+   * Create many Parameters in a single batch. Node status and hierarchy
+   * parameter ids are resolved with one query each, the properties are inserted
+   * with a JDBC batch and the propagate flag is raised once per (hierarchy, system).
+   *
+   * @param dtos the parameters to create
+   * @return one result per element, in the same order as the request
+   */
+  CompletableFuture<List<BulkItemResultDTO>> createBulk(List<ResponseParameterDTO> dtos);
+
   /**
    * Update new Parameter
    *
@@ -76,6 +165,15 @@ public interface ParameterService {
    */
   CompletableFuture<Integer> spread(ResponseParameterDTO dto);
 
+  /**
+   * Propaga comparando las filas del padre con las de cada descendiente; solo
+   * inserta, actualiza o elimina las filas que difieren.
+   *
+   * @param dto nodo y parámetro (opcional) a propagar
+   * @return filas insertadas, actualizadas y eliminadas
+   */
+  CompletableFuture<SpreadDiffResultDTO> spreadDiff(ResponseParameterDTO dto);
+
   /**
    * Take new Parameter
    * @param dto
@@ -0,0 +1,23 @@
+package com.smartpayment.nxt.hierarchy.parameters.service;
+
+import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.SpreadJobDTO;
+
+import java.util.UUID;
+
+public interface SpreadJobService {
+
+  /**
+   * Registra la propagación como trabajo en segundo plano y la inicia.
+   * @param dto nodo y parámetro (opcional) a propagar
+   * @return trabajo registrado en estado PENDING
+   */
+  SpreadJobDTO submit(ResponseParameterDTO dto);
+
+  /**
+   * Consulta el estado y avance de un trabajo de propagación.
+   * @param jobId identificador del trabajo
+   * @return trabajo encontrado
+   */
+  SpreadJobDTO getJob(UUID jobId);
+}
@@ -2,4 +2,13 @@ package com.smartpayment.nxt.hierarchy.parameters.service.impl;
 
 public interface AccessService {
   boolean hasAccess(String user,String roleId, String module, String activity);
+
+  /**
+   * Invalida las decisiones de acceso en cache. Si se indica usuario o rol solo
+   * se invalidan las entradas que coinciden; sin filtros se invalida todo.
+   * @param user usuario, opcional
+   * @param roleId rol, opcional
+   * @return número de entradas invalidadas
+   */
+  long evict(String user, String roleId);
 }
@@ -1,14 +1,90 @@
 package com.smartpayment.nxt.hierarchy.parameters.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.smartpayment.nxt.hierarchy.parameters.repository.ParametersRepository;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-@AllArgsConstructor
+import java.time.Duration;
+import java.util.Objects;
+
+@Slf4j
 @Service
 public class AccessServiceImpl implements AccessService{
   private final ParametersRepository repositoryHierarchy;
+  /** Decisiones de acceso por (usuario, rol, módulo, actividad) */
+  private final Cache<AccessKey, Boolean> decisions;
+
+  public AccessServiceImpl(ParametersRepository repositoryHierarchy,
+                           MeterRegistry meterRegistry,
+                           @Value("${hierarchy.cache.access.max-size:10000}") long maxSize,
+                           @Value("${hierarchy.cache.access.ttl:PT1M}") Duration ttl,
+                           @Value("${hierarchy.cache.access.negative-ttl:PT10S}") Duration negativeTtl) {
+    this.repositoryHierarchy = repositoryHierarchy;
+    this.decisions = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(new DecisionExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, decisions, "hierarchy.access");
+  }
+
+  /**
+   * La consulta se hace fuera del compute de la cache: con hilos virtuales una
+   * llamada JDBC dentro del bloque sincronizado del mapa fijaría el hilo portador.
+   * Dos solicitudes simultáneas para la misma llave pueden consultar ambas.
+   */
   public boolean hasAccess(String user,String roleId, String module, String activity) {
-    return repositoryHierarchy.hasAccess(user, roleId,  module,  activity);
+    AccessKey key = new AccessKey(user, roleId, module, activity);
+    Boolean allowed = decisions.getIfPresent(key);
+    if (allowed == null) {
+      allowed = repositoryHierarchy.hasAccess(user, roleId, module, activity);
+      decisions.put(key, allowed);
+    }
+    return allowed;
+  }
+
+  @Override
+  public long evict(String user, String roleId) {
+    long before = decisions.estimatedSize();
+    if (user == null && roleId == null) {
+      decisions.invalidateAll();
+    } else {
+      decisions.asMap().keySet().removeIf(key ->
+          (user == null || Objects.equals(user, key.user()))
+              && (roleId == null || Objects.equals(roleId, key.roleId())));
+    }
+    long evicted = before - decisions.estimatedSize();
+    log.info("Decisiones de acceso invalidadas. user: {}, roleId: {}, entradas: {}", user, roleId, evicted);
+    return evicted;
+  }
+
+  private record AccessKey(String user, String roleId, String module, String activity) {
+  }
+
+  /**
+   * Las decisiones negativas expiran antes para que un permiso recién otorgado
+   * se vea pronto aunque no se invalide la cache.
+   */
+  private record DecisionExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<AccessKey, Boolean> {
+    @Override
+    public long expireAfterCreate(AccessKey key, Boolean allowed, long currentTime) {
+      return Boolean.TRUE.equals(allowed) ? ttlNanos : negativeTtlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(AccessKey key, Boolean allowed, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, allowed, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(AccessKey key, Boolean allowed, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
   }
 }
@@ -2,32 +2,61 @@ package com.smartpayment.nxt.hierarchy.parameters.service.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.smartpayment.nxt.hierarchy.parameters.cache.CacheInvalidationChannel;
+import com.smartpayment.nxt.hierarchy.parameters.cache.CatalogCache;
+import com.smartpayment.nxt.hierarchy.parameters.cache.EffectiveParameterCache;
+import com.smartpayment.nxt.hierarchy.parameters.cache.HierarchyIndex;
+import com.smartpayment.nxt.hierarchy.parameters.cache.HierarchyNodeCache;
+import com.smartpayment.nxt.hierarchy.parameters.cache.NodeTypeTemplateCache;
+import com.smartpayment.nxt.hierarchy.parameters.dto.BulkItemResultDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.EffectiveParameterDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.GroupedParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.HierarchyNodeDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ParameterDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ParameterJSONDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ParameterPropertyObjectDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseDataParameterDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.SpreadDiffResultDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.TranslateDTO;
 import com.smartpayment.nxt.hierarchy.parameters.exception.HierarchyException;
+import com.smartpayment.nxt.hierarchy.parameters.models.HierarchyParameterKey;
+import com.smartpayment.nxt.hierarchy.parameters.models.ParameterDefinition;
+import com.smartpayment.nxt.hierarchy.parameters.models.ParametersVersion;
 import com.smartpayment.nxt.hierarchy.parameters.repository.ParametersRepository;
+import com.smartpayment.nxt.hierarchy.parameters.repository.impl.ReadYourWritesRouter;
 import com.smartpayment.nxt.hierarchy.parameters.service.ParameterService;
+import com.smartpayment.nxt.hierarchy.parameters.util.ParamUtils;
 import jakarta.transaction.Transactional;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.stream.Stream;
 
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.AFTER;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ATTRIBUTES;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ALL_NODES;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ERROR_CREATE_PARAMETER;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ERROR_CREATE_PARAMETER_JSON;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ERROR_DELETE_PARAMETER;
@@ -48,7 +77,6 @@ import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConsta
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.PARAM_ID;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.SIZE;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.ACTIVE;
-import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.CALL_COUNT_PARAMETERS_HIERARCHY;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.CALL_GET_ID_HIERARCHY_PARAMETER;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.CALL_GET_PARAMETERS_HIERARCHY;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.COUNT_ELEMENTS_SPREAD;
@@ -56,21 +84,29 @@ import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQuerie
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.DELETE_HIERARCHY_PARAMETERS_EXTENDS;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.DELETE_ID_HIERARCHY_PARAMETERS;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.GET_GROUPED_PARAMETERS;
-import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.GET_STATUS_HIERARCHY;
-import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.HIERARCHY_PROPERTY_ID_PAGINATION;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.HIERARCHY_PROPERTY_ID_KEYSET;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.INSERT_HIERARCHY_PARAMETERS_CHILD;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.INSERT_HIERARCHY_PARAMETERS_EXTENDS;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.INSERT_HIERARCHY_PARAMETERS_PROPERTIES_EXTENDS;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.INSERT_HIERARCHY_PROPERTIES_PARAMETERS_CHILD_SYSTEM;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.INSERT_ID_HIERARCHY_PARAMETERS;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.INSERT_ID_HIERARCHY_PARAMETERS_PROPERTIES;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.INSERT_ID_HIERARCHY_PARAMETERS_PROPERTIES_BATCH;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.NO_PROPAGAR;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.PROPAGAR;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.STATUS;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.SPREAD_DIFF_DELETE_PARAMETERS;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.SPREAD_DIFF_DELETE_PROPERTIES;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.SPREAD_DIFF_INSERT_PARAMETERS;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.SPREAD_DIFF_INSERT_PROPERTIES;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.SPREAD_DIFF_UPDATE_PARAMETERS;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.SPREAD_DIFF_UPDATE_PROPERTIES;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.UPDATE_BT_HIERARCHY_PARAMETER_PROPAGE;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.UPDATE_ID_HIERARCHY_PARAMETERS;
 import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.UPDATE_STATUS_HIERARCHY_PARAMETERS;
 import static com.smartpayment.nxt.hierarchy.parameters.controller.ParameterController.MODULE;
+import static com.smartpayment.nxt.hierarchy.parameters.util.TransactionUtils.afterCommit;
+import static com.smartpayment.nxt.hierarchy.parameters.util.TransactionUtils.inSavepoint;
 
 @Service
 @Slf4j
@@ -79,71 +115,193 @@ import static com.smartpayment.nxt.hierarchy.parameters.controller.ParameterCont
 public class ParameterServiceImpl implements ParameterService {
   private final ParametersRepository parameterRepository;
   private final ObjectMapper mapper;
+  private final CatalogCache catalogCache;
+  private final HierarchyNodeCache hierarchyNodeCache;
+  private final NodeTypeTemplateCache nodeTypeTemplateCache;
+  private final ReadYourWritesRouter readYourWritesRouter;
+  private final EffectiveParameterCache effectiveParameterCache;
+  private final HierarchyIndex hierarchyIndex;
+  private final CacheInvalidationChannel cacheInvalidationChannel;
   private final Integer SPREAD =1;
   private final Integer NOT_SPREAD =2;
+  @Value("${hierarchy.export.fetch-size:500}")
+  private int exportFetchSize;
+  @Value("${hierarchy.catalog.batch.max-ids:200}")
+  private int catalogBatchMaxIds;
+  @Value("${hierarchy.etag.max-age:PT1M}")
+  private Duration etagMaxAge;
+  @Value("${hierarchy.bulk.max-items:5000}")
+  private int bulkMaxItems;
+  @Value("${hierarchy.bulk.batch-size:500}")
+  private int bulkBatchSize;
 
   @Override
   @Async
   public CompletableFuture<GroupedParameterDTO> getCatalog(@NotNull Integer id) {
-    return CompletableFuture.supplyAsync(() -> {
-        log.info("Iniciando getCatalog con id: {}", id);
-        validateDataGroup(id);
-        MapSqlParameterSource params = new MapSqlParameterSource()
-            .addValue(STATUS, ACTIVE)
-            .addValue(ID_HIERARCHY, id);
+    log.info("Iniciando getCatalog con id: {}", id);
+    validateDataGroup(id);
+    GroupedParameterDTO categories = catalogCache.get(id, this::loadCatalog);
+    log.info("Catálogo obtenido exitosamente para id: {}", id);
+    return CompletableFuture.completedFuture(categories);
+  }
 
-        log.debug("Obteniendo catálogo con parámetros: {}", params);
-        GroupedParameterDTO categories = parameterRepository.getCatalog(params, GET_GROUPED_PARAMETERS);
+  private GroupedParameterDTO loadCatalog(Integer id) {
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue(STATUS, ACTIVE)
+        .addValue(ID_HIERARCHY, id);
 
-        log.debug("Verificando spread del catálogo");
-        categories.setSpread(verifySpread(categories).join());
+    log.debug("Obteniendo catálogo con parámetros: {}", params);
+    GroupedParameterDTO categories = parameterRepository.getCatalog(params, GET_GROUPED_PARAMETERS);
+    categories.setIdHierarchy(id);
 
-        log.info("Catálogo obtenido exitosamente para id: {}", id);
-        return categories;
-    });
+    log.debug("Verificando spread del catálogo");
+    categories.setSpread(verifySpread(categories).join());
+    return categories;
   }
+
+  @Override
   @Async
-  public CompletableFuture<Integer> verifySpread(GroupedParameterDTO groupedParameter) {
-    return CompletableFuture.supplyAsync(() -> {
-      try{
-        log.debug("Verificando spread en groupedParameter");
-        if (groupedParameter == null || groupedParameter.getCategories() == null) {
-          log.debug("GroupedParameter o sus categorías son nulos, retornando NO_PROPAGAR");
-          return NO_PROPAGAR;
-        }
+  public CompletableFuture<List<GroupedParameterDTO>> getCatalogs(List<Integer> ids) {
+    if (ids == null || ids.isEmpty() || ids.size() > catalogBatchMaxIds) {
+      throw new HierarchyException(ERROR_GROUP_PARAMETER, "Se requieren entre 1 y " + catalogBatchMaxIds + " nodos");
+    }
+    ids.forEach(this::validateDataGroup);
+    Set<Integer> distinct = new LinkedHashSet<>(ids);
+    log.info("Iniciando getCatalogs para {} nodos", distinct.size());
+    Map<Integer, GroupedParameterDTO> catalogs = catalogCache.getAll(distinct, this::loadCatalogs);
+    List<GroupedParameterDTO> result = new ArrayList<>(distinct.size());
+    distinct.forEach(id -> result.add(catalogs.get(id)));
+    log.info("Catálogos obtenidos exitosamente para {} nodos", result.size());
+    return CompletableFuture.completedFuture(result);
+  }
 
-        boolean hasSpreadTrue = groupedParameter.getCategories().stream()
-            .filter(Objects::nonNull)
-            .flatMap(category ->
-                (category.getParameterDTOS() == null) ?
-                    Stream.empty() :
-                    category.getParameterDTOS().stream())
-            .filter(param -> param != null && param.getSpread() != null)
-            .anyMatch(param -> param.getSpread().equals(PROPAGAR));
-
-        int result = hasSpreadTrue ? PROPAGAR : NO_PROPAGAR;
-        log.debug("Resultado de verifySpread: {}", result);
-        return result;
-      } catch (Exception e) {
-        log.error("Error al verificar spread: {}", e.getMessage(), e);
-        return NO_PROPAGAR;
+  private Map<Integer, GroupedParameterDTO> loadCatalogs(Set<Integer> ids) {
+    log.debug("Obteniendo catálogos de {} nodos en una consulta", ids.size());
+    Map<Integer, GroupedParameterDTO> catalogs = parameterRepository.getCatalogs(ids);
+    catalogs.values().forEach(categories -> categories.setSpread(verifySpread(categories).join()));
+    return catalogs;
+  }
+
+  @Override
+  public long writeCatalogs(List<GroupedParameterDTO> catalogs, OutputStream out) throws IOException {
+    ObjectWriter writer = mapper.writerFor(GroupedParameterDTO.class);
+    for (GroupedParameterDTO catalog : catalogs) {
+      out.write(writer.writeValueAsBytes(catalog));
+      out.write('\n');
+      // Cada catálogo sale completo hacia el cliente sin esperar a los siguientes
+      out.flush();
+    }
+    return catalogs.size();
+  }
+  @Async
+  public CompletableFuture<Integer> verifySpread(GroupedParameterDTO groupedParameter) {
+    try{
+      log.debug("Verificando spread en groupedParameter");
+      if (groupedParameter == null || groupedParameter.getCategories() == null) {
+        log.debug("GroupedParameter o sus categorías son nulos, retornando NO_PROPAGAR");
+        return CompletableFuture.completedFuture(NO_PROPAGAR);
       }
-    });
+
+      boolean hasSpreadTrue = groupedParameter.getCategories().stream()
+          .filter(Objects::nonNull)
+          .flatMap(category ->
+              (category.getParameterDTOS() == null) ?
+                  Stream.empty() :
+                  category.getParameterDTOS().stream())
+          .filter(param -> param != null && param.getSpread() != null)
+          .anyMatch(param -> param.getSpread().equals(PROPAGAR));
+
+      int result = hasSpreadTrue ? PROPAGAR : NO_PROPAGAR;
+      log.debug("Resultado de verifySpread: {}", result);
+      return CompletableFuture.completedFuture(result);
+    } catch (Exception e) {
+      log.error("Error al verificar spread: {}", e.getMessage(), e);
+      return CompletableFuture.completedFuture(NO_PROPAGAR);
+    }
   }
   @Async
   @Override
   public CompletableFuture<List<TranslateDTO>> getTranslate(String language) {
-    return CompletableFuture.supplyAsync(() -> {
-      try {
-        log.info("Obteniendo traducciones para language: {}, module: {}", language, MODULE);
-        List<TranslateDTO> result = parameterRepository.getTranslate(MODULE, language);
-        log.info("Se obtuvieron {} traducciones", result != null ? result.size() : 0);
-        return result;
-      } catch (Exception e) {
-        log.error("Error al obtener traducciones. Language: {}, Module: {}, Error: {}", language, MODULE, e.getMessage(), e);
-        return new ArrayList<>();
+    try {
+      log.info("Obteniendo traducciones para language: {}, module: {}", language, MODULE);
+      List<TranslateDTO> result = parameterRepository.getTranslate(MODULE, language);
+      log.info("Se obtuvieron {} traducciones", result != null ? result.size() : 0);
+      return CompletableFuture.completedFuture(result);
+    } catch (Exception e) {
+      log.error("Error al obtener traducciones. Language: {}, Module: {}, Error: {}", language, MODULE, e.getMessage(), e);
+      return CompletableFuture.completedFuture(new ArrayList<>());
+    }
+  }
+
+  @Override
+  @Async
+  public CompletableFuture<List<EffectiveParameterDTO>> getEffectiveParameters(Integer idHierarchy, Integer idSystem) {
+    log.info("Obteniendo parámetros efectivos para idHierarchy: {}, idSystem: {}", idHierarchy, idSystem);
+    validateDataGroup(idHierarchy);
+    List<EffectiveParameterDTO> effective = effectiveParameterCache.get(idHierarchy, this::resolveEffective);
+    if (idSystem != null) {
+      effective = effective.stream().filter(parameter -> idSystem.equals(parameter.getIdSystem())).toList();
+    }
+    log.info("Parámetros efectivos obtenidos para idHierarchy: {}: {}", idHierarchy, effective.size());
+    return CompletableFuture.completedFuture(effective);
+  }
+
+  /**
+   * Recorre el nodo y sus ancestros del más cercano a la raíz; cada parámetro-propiedad lo
+   * decide el primer nodo que lo define. Si ese nodo lo tiene deshabilitado o sin propiedades
+   * activas, no tiene valor efectivo aunque un ancestro más lejano sí lo defina.
+   */
+  private List<EffectiveParameterDTO> resolveEffective(Integer idHierarchy) {
+    List<Integer> chain = hierarchyIndex.ancestors(idHierarchy);
+    if (chain == null) {
+      log.debug("Nodo {} fuera del índice de jerarquía, consultando ancestros", idHierarchy);
+      chain = parameterRepository.getAncestors(idHierarchy);
+    }
+    if (chain.isEmpty()) {
+      throw new HierarchyException(ERROR_GROUP_PARAMETER, "El nodo no existe: " + idHierarchy);
+    }
+    Map<Integer, List<ParameterDefinition>> definitions =
+        effectiveParameterCache.definitions(chain, parameterRepository::getParameterDefinitions);
+
+    Set<EffectiveKey> decided = new HashSet<>();
+    List<EffectiveParameterDTO> effective = new ArrayList<>();
+    for (Integer node : chain) {
+      for (ParameterDefinition definition : definitions.getOrDefault(node, List.of())) {
+        if (decided.add(new EffectiveKey(definition.idSystem(), definition.idProperty()))
+            && Integer.valueOf(ACTIVE).equals(definition.status()) && !definition.values().isEmpty()) {
+          effective.add(EffectiveParameterDTO.builder()
+              .idHierarchy(idHierarchy)
+              .idSystem(definition.idSystem())
+              .idProperty(definition.idProperty())
+              .inheritedFrom(node)
+              .inherited(!node.equals(idHierarchy))
+              .values(List.copyOf(definition.values()))
+              .build());
+        }
       }
-    });
+    }
+    effective.sort(Comparator.comparing(EffectiveParameterDTO::getIdSystem).thenComparing(EffectiveParameterDTO::getIdProperty));
+    return List.copyOf(effective);
+  }
+
+  @Async
+  @Override
+  public CompletableFuture<String> getParametersETag(Integer idHierarchy) {
+    if (idHierarchy == null || idHierarchy <= 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+    try {
+      ParametersVersion version = parameterRepository.getParametersVersion(idHierarchy);
+      // El periodo hace que el ETag cambie al menos cada max-age, para tomar cambios hechos fuera de este servicio
+      long period = System.currentTimeMillis() / etagMaxAge.toMillis();
+      return CompletableFuture.completedFuture(version.node() + "-" + version.all() + "-" + period);
+    } catch (Exception e) {
+      log.warn("No se pudo obtener la versión de parámetros de idHierarchy: {}, se responde sin ETag. Error: {}", idHierarchy, e.getMessage());
+      return CompletableFuture.completedFuture(null);
+    }
+  }
+
+  private record EffectiveKey(Integer idSystem, Integer idProperty) {
   }
 
   private void validateDataGroup(Integer id) throws HierarchyException {
@@ -156,48 +314,125 @@ public class ParameterServiceImpl implements ParameterService {
   @Async
   @Override
   public CompletableFuture<List<ParameterPropertyObjectDTO>> getTemplate(Integer hierarchyId, Integer parameterId) {
-    return CompletableFuture.supplyAsync(() -> {
-        log.info("Obteniendo template para hierarchyId: {}, parameterId: {}", hierarchyId, parameterId);
-        MapSqlParameterSource params = new MapSqlParameterSource()
-            .addValue(ID_HIERARCHY, hierarchyId)
-            .addValue(STATUS, ACTIVE)
-            .addValue(ID_PARAMETER, parameterId);
-
-        List<ParameterPropertyObjectDTO> result = parameterRepository.getTemplate(params);
-        log.info("Template obtenido con {} elementos", result != null ? result.size() : 0);
-        return result;
-    });
+    log.info("Obteniendo template para hierarchyId: {}, parameterId: {}", hierarchyId, parameterId);
+    HierarchyNodeDTO node = hierarchyNodeCache.get(hierarchyId, parameterRepository::getHierarchyNode);
+    if (node == null) {
+      log.info("No existe el nodo {}, template vacío", hierarchyId);
+      return CompletableFuture.completedFuture(new ArrayList<>());
+    }
+    List<ParameterPropertyObjectDTO> template = nodeTypeTemplateCache.get(node.getNodeTypeId(), parameterId,
+        parameterRepository::getTemplateByNodeType);
+    List<ParameterPropertyObjectDTO> result = new ArrayList<>(template != null ? template.size() : 0);
+    if (template != null) {
+      for (ParameterPropertyObjectDTO property : template) {
+        result.add(ParameterPropertyObjectDTO.builder()
+            .idSystem(property.getIdSystem())
+            .idParameter(property.getIdParameter())
+            .idHierarchy(node.getIdHierarchy())
+            .status(node.getStatus())
+            .elements(property.getElements())
+            .build());
+      }
+    }
+    log.info("Template obtenido con {} elementos", result.size());
+    return CompletableFuture.completedFuture(result);
   }
   @Async
   @Override
-  public CompletableFuture<ResponseDataParameterDTO> getDataHierarchy(Integer idHierarchy, Integer idSystem, Integer idProperty, Integer page, Integer size) {
+  public CompletableFuture<ResponseDataParameterDTO> getDataHierarchy(Integer idHierarchy, Integer idSystem, Integer idProperty, Integer page, Integer size, boolean exactCount) {
     validateDataParameter(idHierarchy, idSystem, idProperty, page, size);
-    return CompletableFuture.supplyAsync(() -> {
-        log.info("Obteniendo datos de jerarquía. idHierarchy: {}, idSystem: {}, idProperty: {}, page: {}, size: {}",
-            idHierarchy, idSystem, idProperty, page, size);
-        MapSqlParameterSource params = new MapSqlParameterSource()
-            .addValue(ID_HIERARCHY, idHierarchy)
-            .addValue(ID_SYSTEM, idSystem)
-            .addValue(SIZE, size)
-            .addValue(PAGE, page)
-            .addValue(ID_PROPERTY, idProperty);
-
-        log.debug("Consultando contador de parámetros");
-        int count = parameterRepository.getForInt(CALL_COUNT_PARAMETERS_HIERARCHY, params);
-        int totalPaginas = count / size + (count % size > 0 ? 1 : 0);
-
-        log.debug("Encontrados {} registros, total páginas: {}", count, totalPaginas);
-        ResponseDataParameterDTO result = parameterRepository.getParametersHierarchy(params, count, totalPaginas, size, page,
-            CALL_GET_PARAMETERS_HIERARCHY + " " + HIERARCHY_PROPERTY_ID_PAGINATION);
-        result.setSpread(
-            result.getData().stream()
-            .filter(param->param.getSpreadParameters() != null && param.getSpreadParameters().equals(SPREAD))
-            .findFirst()
-            .map(p -> SPREAD)
-            .orElse(NOT_SPREAD));
-        log.info("Datos de jerarquía obtenidos exitosamente");
-        return result;
-    });
+    log.info("Obteniendo datos de jerarquía. idHierarchy: {}, idSystem: {}, idProperty: {}, page: {}, size: {}, exactCount: {}",
+        idHierarchy, idSystem, idProperty, page, size, exactCount);
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue(ID_HIERARCHY, idHierarchy)
+        .addValue(ID_SYSTEM, idSystem)
+        .addValue(SIZE, size)
+        .addValue(PAGE, page)
+        .addValue(ID_PROPERTY, idProperty);
+
+    ResponseDataParameterDTO result = parameterRepository.getParametersHierarchyPage(params, size, page, exactCount);
+    log.debug("Encontrados {} registros, total páginas: {}, hasNext: {}",
+        result.getTotalElements(), result.getTotalPages(), result.getHasNext());
+    setSpread(result);
+    log.info("Datos de jerarquía obtenidos exitosamente");
+    return CompletableFuture.completedFuture(result);
+  }
+
+  @Async
+  @Override
+  public CompletableFuture<ResponseDataParameterDTO> getDataHierarchyByCursor(Integer idHierarchy, Integer idSystem, Integer idProperty, String cursor, Integer size) {
+    // La paginación por cursor no usa número de página
+    validateDataParameter(idHierarchy, idSystem, idProperty, 0, size);
+    int after;
+    try {
+      after = ParamUtils.decodeCursor(cursor);
+    } catch (IllegalArgumentException e) {
+      log.warn("Cursor de paginación inválido: {}", cursor);
+      throw new HierarchyException(PAGINATION_PARAMETER, "Cursor de paginacion invalido");
+    }
+    log.info("Obteniendo datos de jerarquía por cursor. idHierarchy: {}, idSystem: {}, idProperty: {}, after: {}, size: {}",
+        idHierarchy, idSystem, idProperty, after, size);
+    // Se pide un elemento extra para saber si existe una página siguiente
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue(ID_HIERARCHY, idHierarchy)
+        .addValue(ID_SYSTEM, idSystem)
+        .addValue(ID_PROPERTY, idProperty)
+        .addValue(AFTER, after)
+        .addValue(SIZE, size + 1);
+
+    ResponseDataParameterDTO result = parameterRepository.getParametersHierarchy(params, null, null, size, null,
+        CALL_GET_PARAMETERS_HIERARCHY + " " + HIERARCHY_PROPERTY_ID_KEYSET);
+    List<ResponseParameterDTO> data = result.getData();
+    if (data.size() > size) {
+      data = new ArrayList<>(data.subList(0, size));
+      result.setData(data);
+      result.setNextCursor(ParamUtils.encodeCursor(data.get(data.size() - 1).getId()));
+    }
+    setSpread(result);
+    log.info("Datos de jerarquía por cursor obtenidos exitosamente, elementos: {}", data.size());
+    return CompletableFuture.completedFuture(result);
+  }
+
+  /**
+   * Fuera de la transacción de la clase: el repositorio abre y cierra la suya para el cursor, y
+   * una transacción externa retendría otra conexión mientras el cliente descarga.
+   */
+  @Override
+  @Transactional(Transactional.TxType.NOT_SUPPORTED)
+  public long exportParameters(Integer idHierarchy, OutputStream out) throws IOException {
+    validateDataGroup(idHierarchy);
+    log.info("Exportando parámetros del subárbol de idHierarchy: {}", idHierarchy);
+    ObjectWriter writer = mapper.writerFor(ResponseParameterDTO.class);
+    long[] written = {0};
+    long rows;
+    try {
+      rows = parameterRepository.streamParametersSubtree(idHierarchy, exportFetchSize, dto -> {
+        try {
+          out.write(writer.writeValueAsBytes(dto));
+          out.write('\n');
+          if (++written[0] % exportFetchSize == 0) {
+            out.flush();
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      log.warn("Exportación interrumpida para idHierarchy: {} después de {} registros", idHierarchy, written[0]);
+      throw e.getCause();
+    }
+    out.flush();
+    log.info("Exportación terminada para idHierarchy: {}, registros: {}", idHierarchy, rows);
+    return rows;
+  }
+
+  private void setSpread(ResponseDataParameterDTO result) {
+    result.setSpread(
+        result.getData().stream()
+        .filter(param->param.getSpreadParameters() != null && param.getSpreadParameters().equals(SPREAD))
+        .findFirst()
+        .map(p -> SPREAD)
+        .orElse(NOT_SPREAD));
   }
 
   private void validateDataParameter(Integer hierarchyId, Integer parameterId, Integer idProperty, Integer page, Integer size) throws HierarchyException {
@@ -210,7 +445,7 @@ public class ParameterServiceImpl implements ParameterService {
       throw new HierarchyException(PARAMETER_INVALIDATE, "Parametro invalido de entrada");
     }
 
-    if (page < 0 || size <= 0) {
+    if (page == null || size == null || page < 0 || size <= 0) {
       log.warn("Parámetros de paginación inválidos: page={}, size={}", page, size);
       throw new HierarchyException(PAGINATION_PARAMETER, "Parametro invalido de pagina y numero de elementos");
     }
@@ -221,45 +456,148 @@ public class ParameterServiceImpl implements ParameterService {
   @Override
   public CompletableFuture<ResponseParameterDTO> create(ResponseParameterDTO dto) {
     validateNodeDisbaled(dto.getIdHierarchy());
-    return CompletableFuture.supplyAsync(() -> {
-        log.info("Creando parámetro: {}", dto);
-        MapSqlParameterSource params = new MapSqlParameterSource()
-            .addValue(ID_SYSTEM, dto.getIdSystem())
-            .addValue(ID_PROPERTY, dto.getIdProperty())
-            .addValue(ID_PARAMETER, dto.getIdParameter())
-            .addValue(ID_HIERARCHY, dto.getIdHierarchy())
-            .addValue(STATUS, dto.getStatus());
-
-        log.debug("Consultando si existe el parámetro en la jerarquía");
-        Integer idHierarchyParameters = parameterRepository.getForInt(CALL_GET_ID_HIERARCHY_PARAMETER, params);
-        log.info("GET ID DTO PARAMETERS PROPERTIES{}", idHierarchyParameters);
-
-        dto.setIdParameter(idHierarchyParameters);
-        params.addValue(ID_PARAMETER, idHierarchyParameters);
-
-        String json;
-        try {
-          json = mapper.writeValueAsString(new ParameterJSONDTO(dto.getLabelParameter(), dto.getAmountMin(), dto.getAmount(), dto.getAmountMax(), dto.getType()));
-          log.debug("DTO convertido a JSON: {}", json);
-        } catch (JsonProcessingException e) {
-          log.error("Error al convertir DTO a JSON: {}", e.getMessage(), e);
-          throw new HierarchyException(ERROR_CREATE_PARAMETER_JSON, "Error al convertir DTO a JSON");
-        }
+    log.info("Creando parámetro: {}", dto);
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue(ID_SYSTEM, dto.getIdSystem())
+        .addValue(ID_PROPERTY, dto.getIdProperty())
+        .addValue(ID_PARAMETER, dto.getIdParameter())
+        .addValue(ID_HIERARCHY, dto.getIdHierarchy())
+        .addValue(STATUS, dto.getStatus());
+
+    log.debug("Consultando si existe el parámetro en la jerarquía");
+    Integer idHierarchyParameters = parameterRepository.getForInt(CALL_GET_ID_HIERARCHY_PARAMETER, params);
+    log.info("GET ID DTO PARAMETERS PROPERTIES{}", idHierarchyParameters);
+
+    dto.setIdParameter(idHierarchyParameters);
+    params.addValue(ID_PARAMETER, idHierarchyParameters);
+
+    String json;
+    try {
+      json = mapper.writeValueAsString(new ParameterJSONDTO(dto.getLabelParameter(), dto.getAmountMin(), dto.getAmount(), dto.getAmountMax(), dto.getType()));
+      log.debug("DTO convertido a JSON: {}", json);
+    } catch (JsonProcessingException e) {
+      log.error("Error al convertir DTO a JSON: {}", e.getMessage(), e);
+      throw new HierarchyException(ERROR_CREATE_PARAMETER_JSON, "Error al convertir DTO a JSON");
+    }
 
-        params.addValue(ATTRIBUTES, json);
-        int elementoNuevo = parameterRepository.createObject(INSERT_ID_HIERARCHY_PARAMETERS_PROPERTIES, params);
-        log.info("Elemento creado con ID: {}", elementoNuevo);
+    params.addValue(ATTRIBUTES, json);
+    int elementoNuevo = parameterRepository.createObject(INSERT_ID_HIERARCHY_PARAMETERS_PROPERTIES, params);
+    log.info("Elemento creado con ID: {}", elementoNuevo);
+
+    updateStatusPropagate(dto.getIdHierarchy(), dto.getIdSystem(), PROPAGAR);
+    nodeChanged(dto.getIdHierarchy(), dto.getIdSystem());
+
+    if (elementoNuevo == 0) {
+      log.error("Error al crear el parámetro, no se insertó ningún registro");
+      throw new HierarchyException(ERROR_CREATE_PARAMETER, "Error al crear el parámetro");
+    }
+
+    dto.setId(elementoNuevo);
+    return CompletableFuture.completedFuture(dto);
+  }
+
+  @Async
+  @Override
+  public CompletableFuture<List<BulkItemResultDTO>> createBulk(List<ResponseParameterDTO> dtos) {
+    if (dtos == null || dtos.isEmpty() || dtos.size() > bulkMaxItems) {
+      throw new HierarchyException(PARAMETER_INVALIDATE, "Se requieren entre 1 y " + bulkMaxItems + " parametros");
+    }
+    log.info("Creando {} parámetros en lote", dtos.size());
+    BulkItemResultDTO[] results = new BulkItemResultDTO[dtos.size()];
+
+    // Estado de todos los nodos en una sola consulta
+    Set<Integer> idHierarchies = new LinkedHashSet<>();
+    dtos.forEach(dto -> idHierarchies.add(dto.getIdHierarchy()));
+    idHierarchies.remove(null);
+    Map<Integer, Integer> statusByHierarchy = parameterRepository.getStatusHierarchies(idHierarchies);
+
+    // hierarchy_parameter_id de todos los (nodo, parámetro, propiedad) en una sola consulta
+    Set<HierarchyParameterKey> keys = new LinkedHashSet<>();
+    for (int i = 0; i < dtos.size(); i++) {
+      ResponseParameterDTO dto = dtos.get(i);
+      if (dto.getIdHierarchy() == null || dto.getIdSystem() == null || dto.getIdProperty() == null) {
+        results[i] = bulkFailure(i, PARAMETER_INVALIDATE, "Parametro invalido de entrada");
+      } else if (!Integer.valueOf(ACTIVE).equals(statusByHierarchy.get(dto.getIdHierarchy()))) {
+        results[i] = bulkFailure(i, ERROR_NODE_ENABLED, "Error node deshabilitado");
+      } else {
+        keys.add(new HierarchyParameterKey(dto.getIdHierarchy(), dto.getIdSystem(), dto.getIdProperty()));
+      }
+    }
+    Map<HierarchyParameterKey, Integer> idsByKey = parameterRepository.getHierarchyParameterIds(keys);
 
-        updateStatusPropagate(dto.getIdHierarchy(), dto.getIdSystem(), PROPAGAR);
+    List<Integer> pending = new ArrayList<>();
+    List<MapSqlParameterSource> batch = new ArrayList<>();
+    for (int i = 0; i < dtos.size(); i++) {
+      if (results[i] != null) {
+        continue;
+      }
+      ResponseParameterDTO dto = dtos.get(i);
+      Integer idHierarchyParameters = idsByKey.get(new HierarchyParameterKey(dto.getIdHierarchy(), dto.getIdSystem(), dto.getIdProperty()));
+      if (idHierarchyParameters == null || idHierarchyParameters <= 0) {
+        results[i] = bulkFailure(i, ERROR_CREATE_PARAMETER, "El parametro no esta habilitado en el nodo");
+        continue;
+      }
+      try {
+        String json = mapper.writeValueAsString(new ParameterJSONDTO(dto.getLabelParameter(), dto.getAmountMin(), dto.getAmount(), dto.getAmountMax(), dto.getType()));
+        batch.add(new MapSqlParameterSource()
+            .addValue(ID_PARAMETER, idHierarchyParameters)
+            .addValue(ATTRIBUTES, json)
+            .addValue(STATUS, dto.getStatus()));
+        pending.add(i);
+      } catch (JsonProcessingException e) {
+        log.error("Error al convertir DTO a JSON en lote. Indice: {}, Error: {}", i, e.getMessage(), e);
+        results[i] = bulkFailure(i, ERROR_CREATE_PARAMETER_JSON, "Error al convertir DTO a JSON");
+      }
+    }
 
-        if (elementoNuevo == 0) {
-          log.error("Error al crear el parámetro, no se insertó ningún registro");
-          throw new HierarchyException(ERROR_CREATE_PARAMETER, "Error al crear el parámetro");
+    Map<String, MapSqlParameterSource> propagate = new LinkedHashMap<>();
+    for (int from = 0; from < batch.size(); from += bulkBatchSize) {
+      int to = Math.min(from + bulkBatchSize, batch.size());
+      List<Integer> chunk = pending.subList(from, to);
+      List<MapSqlParameterSource> rows = batch.subList(from, to);
+      try {
+        // Cada bloque en su savepoint: si falla, solo se revierten sus filas y los demás bloques siguen
+        List<Integer> ids = inSavepoint(() -> parameterRepository.createObjectsBatch(
+            INSERT_ID_HIERARCHY_PARAMETERS_PROPERTIES_BATCH, rows, "hierarchy_property_id"));
+        for (int j = 0; j < chunk.size(); j++) {
+          int index = chunk.get(j);
+          ResponseParameterDTO dto = dtos.get(index);
+          results[index] = BulkItemResultDTO.builder()
+              .index(index)
+              .success(true)
+              .id(ids.get(j))
+              .idParameter((Integer) rows.get(j).getValue(ID_PARAMETER))
+              .build();
+          propagate.computeIfAbsent(dto.getIdHierarchy() + ":" + dto.getIdSystem(), k -> new MapSqlParameterSource()
+              .addValue(ID_HIERARCHY, dto.getIdHierarchy())
+              .addValue(ID_SYSTEM, dto.getIdSystem(), java.sql.Types.INTEGER)
+              .addValue(STATUS, PROPAGAR));
         }
+      } catch (Exception e) {
+        log.error("Error al insertar lote de parámetros [{}, {}). Error: {}", from, to, e.getMessage(), e);
+        chunk.forEach(index -> results[index] = bulkFailure(index, ERROR_CREATE_PARAMETER, "Error al crear el parámetro"));
+      }
+    }
 
-        dto.setId(elementoNuevo);
-        return dto;
-    });
+    // Bandera de propagación una sola vez por (nodo, parámetro)
+    if (!propagate.isEmpty()) {
+      try {
+        parameterRepository.updateObjectsBatch(UPDATE_BT_HIERARCHY_PARAMETER_PROPAGE, new ArrayList<>(propagate.values()));
+      } catch (Exception e) {
+        // Se revierte todo el lote, incluidos los bloques que ya se habían insertado
+        log.error("Error al actualizar estado de propagación en lote. Error: {}", e.getMessage(), e);
+        throw new HierarchyException(ERROR_UPDATE_STATUS_PARAMETERS_EMPTY, "Error al actualizar estado de propagación: " + e.getMessage());
+      }
+      propagate.values().forEach(params ->
+          nodeChanged((Integer) params.getValue(ID_HIERARCHY), (Integer) params.getValue(ID_SYSTEM)));
+    }
+    List<BulkItemResultDTO> response = List.of(results);
+    log.info("Lote terminado: {} creados de {}", response.stream().filter(BulkItemResultDTO::isSuccess).count(), dtos.size());
+    return CompletableFuture.completedFuture(response);
+  }
+
+  private static BulkItemResultDTO bulkFailure(int index, String code, String message) {
+    return BulkItemResultDTO.builder().index(index).success(false).code(code).message(message).build();
   }
 
   @Transactional
@@ -283,6 +621,7 @@ public class ParameterServiceImpl implements ParameterService {
       }
 
       updateStatusPropagate(dto.getIdHierarchy(), dto.getIdSystem(), PROPAGAR);
+      nodeChanged(dto.getIdHierarchy(), dto.getIdSystem());
       log.info("Actualización del parámetro completada exitosamente");
 
       return CompletableFuture.completedFuture(null);
@@ -293,51 +632,89 @@ public class ParameterServiceImpl implements ParameterService {
   @Async
   @Override
   public CompletableFuture<Integer> spread(ResponseParameterDTO dto) {
-    return CompletableFuture.supplyAsync(() -> {
-      Integer contElementsToSpread = 0;
-      validateNodeDisbaled(dto.getIdHierarchy());
-      try {
-        log.info("Propagando parámetro: {}", dto);
-        MapSqlParameterSource params = getParametersBySpread(dto);
-
-        log.debug("Eliminando parámetros hijos existentes");
-        int deletedCount = parameterRepository.updateObject(DELETE_HIERARCHY_PARAMETERS_CHILD, params);
-        log.debug("Registros eliminados: {}", deletedCount);
-
-        log.debug("Insertando nuevos parámetros hijos");
-        contElementsToSpread = parameterRepository.getForInt(COUNT_ELEMENTS_SPREAD, params);
-        if (contElementsToSpread > 0) {
-          Integer parameters = parameterRepository.updateObject(INSERT_HIERARCHY_PARAMETERS_CHILD, params);
-          log.info("Parámetros insertados: {}", parameters);
-
-          if (parameters != null && parameters > 0) {
-            log.debug("Insertando propiedades de parámetros");
-            Integer properties = parameterRepository.updateObject(INSERT_HIERARCHY_PROPERTIES_PARAMETERS_CHILD_SYSTEM, params);
-            log.info("Propiedades insertadas: {}", properties);
-
-            if (properties == null || properties <= 0) {
-              log.error("No se insertaron propiedades al propagar el parámetro");
-             // throw new HierarchyException(ERROR_SPREAD_PARAMETER, "Error al propagar el parámetro");
-            }
-          } else {
-            log.error("No se insertaron parámetros al propagar");
-            throw new HierarchyException(ERROR_SPREAD_PROPERTY_PARAMETER, "Error al propagar el parámetro-propiedad");
-          }
-          updateStatusPropagate(dto.getIdHierarchy(), dto.getIdSystem(), NO_PROPAGAR);
-          log.info("Parámetro propagado exitosamente");
+    Integer contElementsToSpread = 0;
+    validateNodeDisbaled(dto.getIdHierarchy());
+    try {
+      log.info("Propagando parámetro: {}", dto);
+      MapSqlParameterSource params = getParametersBySpread(dto);
+
+      log.debug("Eliminando parámetros hijos existentes");
+      int deletedCount = parameterRepository.updateObject(DELETE_HIERARCHY_PARAMETERS_CHILD, params);
+      log.debug("Registros eliminados: {}", deletedCount);
 
+      log.debug("Insertando nuevos parámetros hijos");
+      contElementsToSpread = parameterRepository.getForInt(COUNT_ELEMENTS_SPREAD, params);
+      if (contElementsToSpread > 0) {
+        Integer parameters = parameterRepository.updateObject(INSERT_HIERARCHY_PARAMETERS_CHILD, params);
+        log.info("Parámetros insertados: {}", parameters);
+
+        if (parameters != null && parameters > 0) {
+          log.debug("Insertando propiedades de parámetros");
+          Integer properties = parameterRepository.updateObject(INSERT_HIERARCHY_PROPERTIES_PARAMETERS_CHILD_SYSTEM, params);
+          log.info("Propiedades insertadas: {}", properties);
+
+          if (properties == null || properties <= 0) {
+            log.error("No se insertaron propiedades al propagar el parámetro");
+           // throw new HierarchyException(ERROR_SPREAD_PARAMETER, "Error al propagar el parámetro");
+          }
         } else {
-          log.info("No existen Parámetros a propagar");
+          log.error("No se insertaron parámetros al propagar");
+          throw new HierarchyException(ERROR_SPREAD_PROPERTY_PARAMETER, "Error al propagar el parámetro-propiedad");
         }
-      } catch (HierarchyException e) {
-        log.error("Error de jerarquía al propagar parámetro: {}", e.getMessage());
-        throw e;
-      } catch (Exception e) {
-        log.error("Error inesperado al propagar parámetro. DTO: {}, Error: {}", dto, e.getMessage(), e);
-        throw new HierarchyException(ERROR_SPREAD_PARAMETER, "Error al propagar el parámetro: " + e.getMessage());
+        updateStatusPropagate(dto.getIdHierarchy(), dto.getIdSystem(), NO_PROPAGAR);
+        // La propagación modifica el catálogo de todos los descendientes
+        allNodesChanged(dto.getIdSystem());
+        log.info("Parámetro propagado exitosamente");
+
+      } else {
+        log.info("No existen Parámetros a propagar");
       }
-      return contElementsToSpread;
-    });
+    } catch (HierarchyException e) {
+      log.error("Error de jerarquía al propagar parámetro: {}", e.getMessage());
+      throw e;
+    } catch (Exception e) {
+      log.error("Error inesperado al propagar parámetro. DTO: {}, Error: {}", dto, e.getMessage(), e);
+      throw new HierarchyException(ERROR_SPREAD_PARAMETER, "Error al propagar el parámetro: " + e.getMessage());
+    }
+    return CompletableFuture.completedFuture(contElementsToSpread);
+  }
+
+  @Transactional
+  @Async
+  @Override
+  public CompletableFuture<SpreadDiffResultDTO> spreadDiff(ResponseParameterDTO dto) {
+    log.info("Propagando parámetro por diferencias: {}", dto);
+    validateNodeDisbaled(dto.getIdHierarchy());
+    MapSqlParameterSource params = getParametersBySpread(dto);
+
+    // Primero las filas de parámetros, para que las propiedades se comparen contra filas ya depuradas
+    SpreadDiffResultDTO result = SpreadDiffResultDTO.builder()
+        .idHierarchy(dto.getIdHierarchy())
+        .idSystem(dto.getIdSystem())
+        .deletedParameters(executeSpreadDiff(SPREAD_DIFF_DELETE_PARAMETERS, params))
+        .updatedParameters(executeSpreadDiff(SPREAD_DIFF_UPDATE_PARAMETERS, params))
+        .insertedParameters(executeSpreadDiff(SPREAD_DIFF_INSERT_PARAMETERS, params))
+        .updatedProperties(executeSpreadDiff(SPREAD_DIFF_UPDATE_PROPERTIES, params))
+        .deletedProperties(executeSpreadDiff(SPREAD_DIFF_DELETE_PROPERTIES, params))
+        .insertedProperties(executeSpreadDiff(SPREAD_DIFF_INSERT_PROPERTIES, params))
+        .build();
+    log.info("Propagación por diferencias terminada: {}", result);
+
+    updateStatusPropagate(dto.getIdHierarchy(), dto.getIdSystem(), NO_PROPAGAR);
+    if (result.getTotalWrites() > 0) {
+      allNodesChanged(dto.getIdSystem());
+    } else {
+      nodeChanged(dto.getIdHierarchy(), dto.getIdSystem());
+    }
+    return CompletableFuture.completedFuture(result);
+  }
+
+  private int executeSpreadDiff(String query, MapSqlParameterSource params) {
+    Integer rows = parameterRepository.updateObject(query, params);
+    if (rows == null) {
+      throw new HierarchyException(ERROR_SPREAD_PARAMETER, "Error al propagar el parámetro por diferencias");
+    }
+    return rows;
   }
 
   @Transactional
@@ -373,6 +750,7 @@ public class ParameterServiceImpl implements ParameterService {
         throw new HierarchyException(ERROR_TAKE_PARAMETER, "Error al tomar el parámetro");
       }
 
+      nodeChanged(dto.getIdHierarchy(), dto.getIdSystem());
       log.info("Jerarquía tomada exitosamente para parámetro: {}", dto.getId());
       return CompletableFuture.completedFuture(null);
   }
@@ -411,6 +789,7 @@ public class ParameterServiceImpl implements ParameterService {
       log.info("Registros eliminados: {}", deleted);
 
       updateStatusPropagate(dto.getIdHierarchy(), dto.getIdSystem(), PROPAGAR);
+      nodeChanged(dto.getIdHierarchy(), dto.getIdSystem());
 
       if (deleted == 0) {
         log.error("No se eliminó ningún registro para el parámetro con ID: {}", dto.getId());
@@ -453,6 +832,7 @@ public class ParameterServiceImpl implements ParameterService {
       // Reestablecer estado para propagación
       params.addValue(STATUS, ACTIVE);
       updateStatusPropagate(dto.getIdHierarchy(), dto.getIdSystem(), PROPAGAR);
+      nodeChanged(dto.getIdHierarchy(), dto.getIdSystem());
 
       log.debug("Consultando catálogo actualizado");
       GroupedParameterDTO categories = parameterRepository.getCatalog(params, GET_GROUPED_PARAMETERS);
@@ -478,9 +858,44 @@ public class ParameterServiceImpl implements ParameterService {
     }
   }
 
+  /**
+   * El catálogo del nodo cambió: se invalida ya y otra vez al confirmar, para no guardar en cache
+   * una lectura hecha antes del commit, y sus lecturas siguientes van al primario hasta que la
+   * réplica alcance la escritura. La versión de parámetros del nodo (ETag) sube y el cambio se
+   * publica a las demás instancias en la misma transacción; si no sube, la escritura falla
+   * con ese error en lugar de confirmar datos que los clientes con ETag no volverían a pedir.
+   */
+  private void nodeChanged(Integer idHierarchy, Integer idSystem) {
+    parameterRepository.bumpParametersVersion(idHierarchy);
+    cacheInvalidationChannel.publish(idHierarchy, idSystem);
+    catalogCache.evict(idHierarchy);
+    effectiveParameterCache.evict(idHierarchy);
+    afterCommit(() -> {
+      // Primero el router: una lectura entre la invalidación y la marca iría a la réplica
+      // atrasada y volvería a llenar el cache con los parámetros anteriores
+      readYourWritesRouter.markWritten(idHierarchy);
+      catalogCache.evict(idHierarchy);
+      effectiveParameterCache.evict(idHierarchy);
+    });
+  }
 
+  /**
+   * Igual que nodeChanged, para escrituras que afectan a los descendientes.
+   */
+  private void allNodesChanged(Integer idSystem) {
+    parameterRepository.bumpParametersVersion(ALL_NODES);
+    cacheInvalidationChannel.publishAll(idSystem);
+    catalogCache.evictAll();
+    effectiveParameterCache.evictAll();
+    afterCommit(() -> {
+      readYourWritesRouter.markAllWritten();
+      catalogCache.evictAll();
+      effectiveParameterCache.evictAll();
+    });
+  }
+
+  // El nodo ya se validó al inicio de cada flujo de escritura; no se vuelve a consultar aquí
   private void updateStatusPropagate(Integer idHierarchy, Integer idSystem, Integer status) {
-    validateNodeDisbaled(idHierarchy);
     try {
       log.debug("Actualizando estado de propagación. idHierarchy: {}, idSystem: {}, status: {}",
           idHierarchy, idSystem, status);
@@ -500,11 +915,9 @@ public class ParameterServiceImpl implements ParameterService {
   }
 
   private void validateNodeDisbaled(@NotNull Integer idHierarchy) {
-    MapSqlParameterSource params = new MapSqlParameterSource()
-        .addValue(ID_HIERARCHY, idHierarchy);
-    Integer status = parameterRepository.getForInt(GET_STATUS_HIERARCHY, params);
-    log.debug("Consultando status de hiersrchy  {}", status);
-    if(!status.equals(ACTIVE))
+    HierarchyNodeDTO node = hierarchyNodeCache.get(idHierarchy, parameterRepository::getHierarchyNode);
+    log.debug("Consultando status de hierarchy {}: {}", idHierarchy, node != null ? node.getStatus() : null);
+    if (node == null || !Integer.valueOf(ACTIVE).equals(node.getStatus()))
       throw new HierarchyException(ERROR_NODE_ENABLED, "Error node deshabilitado");
   }
 }
@@ -0,0 +1,332 @@
+package com.smartpayment.nxt.hierarchy.parameters.service.impl;
+
+import com.smartpayment.nxt.hierarchy.parameters.cache.CacheInvalidationChannel;
+import com.smartpayment.nxt.hierarchy.parameters.cache.CatalogCache;
+import com.smartpayment.nxt.hierarchy.parameters.cache.EffectiveParameterCache;
+import com.smartpayment.nxt.hierarchy.parameters.cache.HierarchyNodeCache;
+import com.smartpayment.nxt.hierarchy.parameters.dto.HierarchyNodeDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.SpreadJobDTO;
+import com.smartpayment.nxt.hierarchy.parameters.exception.HierarchyException;
+import com.smartpayment.nxt.hierarchy.parameters.repository.ParametersRepository;
+import com.smartpayment.nxt.hierarchy.parameters.repository.impl.ReadYourWritesRouter;
+import com.smartpayment.nxt.hierarchy.parameters.service.SpreadJobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ALL_NODES;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ERROR_GROUP_PARAMETER;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ERROR_NODE_ENABLED;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ERROR_SPREAD_PARAMETER;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ID_HIERARCHY;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ID_SYSTEM;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.ACTIVE;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.CHILD_LEVEL_FILTER;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.CLAIM_SPREAD_JOB;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.DELETE_HIERARCHY_PARAMETERS_CHILD_LEVEL;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.HEARTBEAT_SPREAD_JOB;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.INSERT_HIERARCHY_PARAMETERS_CHILD;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.INSERT_HIERARCHY_PROPERTIES_PARAMETERS_CHILD_SYSTEM;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.INSERT_SPREAD_JOB;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.NO_PROPAGAR;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.STATUS;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.UPDATE_BT_HIERARCHY_PARAMETER_PROPAGE;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.UPDATE_SPREAD_JOB_PROGRESS;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.UPDATE_SPREAD_JOB_STATUS;
+
+/**
+ * Propagación como trabajo en segundo plano. Cada nivel de hierarchy_path de los
+ * descendientes se procesa en su propia transacción en el primario (borrar, volver a
+ * insertar y registrar last_level), de modo que los lectores nunca ven un nivel a medias,
+ * un error revierte solo ese nivel y el trabajo puede reanudarse desde last_level tras
+ * una caída sin mantener una transacción sobre todo el subárbol.
+ * <p>
+ * La instancia que corre un trabajo es su dueña (owner) y renueva el lease (updated_at)
+ * periódicamente; otra instancia solo lo toma cuando el lease venció. Cada nivel empieza
+ * bloqueando la fila del trabajo con su owner, así que una instancia que perdió el lease
+ * no puede escribir un nivel al mismo tiempo que la nueva dueña.
+ * Al reiniciar, una instancia con el mismo identificador retoma sus trabajos sin esperar
+ * a que venzan, y un barrido periódico reanuda los que quedaron huérfanos.
+ */
+@Slf4j
+@Service
+public class SpreadJobServiceImpl implements SpreadJobService {
+  private static final String JOB_ID = "jobId";
+  private static final String LEVEL = "level";
+  private static final String STALE_SECONDS = "staleSeconds";
+  private static final String OWNER = "owner";
+  private static final String INSERT_PARAMETERS_LEVEL = INSERT_HIERARCHY_PARAMETERS_CHILD + CHILD_LEVEL_FILTER;
+  private static final String INSERT_PROPERTIES_LEVEL = INSERT_HIERARCHY_PROPERTIES_PARAMETERS_CHILD_SYSTEM + CHILD_LEVEL_FILTER;
+
+  private final ParametersRepository parameterRepository;
+  private final CatalogCache catalogCache;
+  private final EffectiveParameterCache effectiveParameterCache;
+  private final HierarchyNodeCache hierarchyNodeCache;
+  private final ReadYourWritesRouter readYourWritesRouter;
+  private final CacheInvalidationChannel cacheInvalidationChannel;
+  private final TaskExecutor taskExecutor;
+  private final TransactionTemplate levelTransaction;
+  private final long staleSeconds;
+  private final String owner;
+  /** Trabajos que corren en esta instancia; evita ejecutar dos veces el mismo trabajo al reanudar */
+  private final Set<UUID> active = ConcurrentHashMap.newKeySet();
+
+  public SpreadJobServiceImpl(ParametersRepository parameterRepository,
+                              CatalogCache catalogCache,
+                              EffectiveParameterCache effectiveParameterCache,
+                              HierarchyNodeCache hierarchyNodeCache,
+                              ReadYourWritesRouter readYourWritesRouter,
+                              CacheInvalidationChannel cacheInvalidationChannel,
+                              @Qualifier("asyncExecutor") TaskExecutor taskExecutor,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${hierarchy.spread.job-stale-seconds:300}") long staleSeconds,
+                              @Value("${hierarchy.spread.instance-id:${HOSTNAME:}}") String instanceId) {
+    this.parameterRepository = parameterRepository;
+    this.catalogCache = catalogCache;
+    this.effectiveParameterCache = effectiveParameterCache;
+    this.hierarchyNodeCache = hierarchyNodeCache;
+    this.readYourWritesRouter = readYourWritesRouter;
+    this.cacheInvalidationChannel = cacheInvalidationChannel;
+    this.taskExecutor = taskExecutor;
+    this.levelTransaction = new TransactionTemplate(transactionManager);
+    this.staleSeconds = staleSeconds;
+    // Sin identificador estable los trabajos de una instancia reiniciada se reanudan al vencer su lease
+    this.owner = instanceId == null || instanceId.isBlank() ? UUID.randomUUID().toString() : instanceId;
+    log.info("Trabajos de propagación con owner {}", this.owner);
+  }
+
+  @Override
+  public SpreadJobDTO submit(ResponseParameterDTO dto) {
+    Integer idHierarchy = dto.getIdHierarchy();
+    if (idHierarchy == null || idHierarchy <= 0) {
+      throw new HierarchyException(ERROR_GROUP_PARAMETER, "El ID debe ser mayor que cero");
+    }
+    HierarchyNodeDTO node = hierarchyNodeCache.get(idHierarchy, parameterRepository::getHierarchyNode);
+    if (node == null || !Integer.valueOf(ACTIVE).equals(node.getStatus())) {
+      throw new HierarchyException(ERROR_NODE_ENABLED, "Error node deshabilitado");
+    }
+    int[] levels = parameterRepository.getSpreadLevels(idHierarchy);
+    if (levels == null) {
+      throw new HierarchyException(ERROR_GROUP_PARAMETER, "No existe el nodo: " + idHierarchy);
+    }
+
+    UUID jobId = UUID.randomUUID();
+    execute(INSERT_SPREAD_JOB, new MapSqlParameterSource()
+        .addValue(JOB_ID, jobId)
+        .addValue(ID_HIERARCHY, idHierarchy)
+        .addValue(ID_SYSTEM, dto.getIdSystem(), Types.INTEGER)
+        .addValue(STATUS, SpreadJobDTO.PENDING)
+        .addValue("rootLevel", levels[0])
+        .addValue("maxLevel", levels[1]));
+    log.info("Trabajo de propagación {} registrado para idHierarchy: {}, niveles {}-{}", jobId, idHierarchy, levels[0], levels[1]);
+
+    taskExecutor.execute(() -> run(jobId));
+    return parameterRepository.getSpreadJob(jobId);
+  }
+
+  @Override
+  public SpreadJobDTO getJob(UUID jobId) {
+    SpreadJobDTO job = parameterRepository.getSpreadJob(jobId);
+    if (job == null) {
+      throw new HierarchyException(ERROR_SPREAD_PARAMETER, "No existe el trabajo de propagación: " + jobId);
+    }
+    return job;
+  }
+
+  /**
+   * Reanuda los trabajos propios que quedaron sin terminar y los de instancias cuyo lease venció.
+   * Corre al iniciar y periódicamente, porque un lease vence después del arranque.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(fixedDelayString = "${hierarchy.spread.rescan-interval:PT1M}",
+      initialDelayString = "${hierarchy.spread.rescan-interval:PT1M}")
+  public void resumePending() {
+    try {
+      List<SpreadJobDTO> jobs = parameterRepository.getResumableSpreadJobs(owner, staleSeconds).stream()
+          .filter(job -> !active.contains(job.getJobId()))
+          .toList();
+      if (!jobs.isEmpty()) {
+        log.info("Reanudando {} trabajos de propagación", jobs.size());
+      }
+      jobs.forEach(job -> taskExecutor.execute(() -> run(job.getJobId())));
+    } catch (Exception e) {
+      log.error("Error al consultar trabajos de propagación pendientes: {}", e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Renueva el lease de los trabajos en curso entre niveles; mientras un nivel corre la fila está
+   * bloqueada y la instancia que intente tomar el trabajo espera a que el nivel termine.
+   */
+  @Scheduled(fixedDelayString = "${hierarchy.spread.heartbeat-interval:PT30S}",
+      initialDelayString = "${hierarchy.spread.heartbeat-interval:PT30S}")
+  public void renewLeases() {
+    for (UUID jobId : active) {
+      try {
+        if (!heartbeat(jobId)) {
+          log.warn("Trabajo de propagación {} sin lease, lo tomó otra instancia", jobId);
+        }
+      } catch (Exception e) {
+        log.warn("No se pudo renovar el lease del trabajo de propagación {}. Error: {}", jobId, e.getMessage());
+      }
+    }
+  }
+
+  void run(UUID jobId) {
+    if (!active.add(jobId)) {
+      log.debug("Trabajo de propagación {} ya corre en esta instancia", jobId);
+      return;
+    }
+    try {
+      MapSqlParameterSource claim = new MapSqlParameterSource()
+          .addValue(JOB_ID, jobId)
+          .addValue(OWNER, owner)
+          .addValue(STALE_SECONDS, staleSeconds);
+      Integer claimed = parameterRepository.updateObject(CLAIM_SPREAD_JOB, claim);
+      if (claimed == null || claimed == 0) {
+        log.debug("Trabajo de propagación {} tomado por otra instancia", jobId);
+        return;
+      }
+      process(parameterRepository.getSpreadJob(jobId));
+    } finally {
+      active.remove(jobId);
+    }
+  }
+
+  private void process(SpreadJobDTO job) {
+    UUID jobId = job.getJobId();
+    try {
+      for (int level = job.getLastLevel() + 1; level <= job.getMaxLevel(); level++) {
+        int current = level;
+        levelTransaction.executeWithoutResult(status -> processLevel(job, current));
+      }
+
+      execute(UPDATE_BT_HIERARCHY_PARAMETER_PROPAGE, new MapSqlParameterSource()
+          .addValue(ID_HIERARCHY, job.getIdHierarchy())
+          .addValue(ID_SYSTEM, job.getIdSystem(), Types.INTEGER)
+          .addValue(STATUS, NO_PROPAGAR));
+      allNodesChanged(job.getIdSystem());
+      updateStatus(jobId, SpreadJobDTO.COMPLETED, null);
+      log.info("Trabajo de propagación {} terminado", jobId);
+    } catch (LeaseLostException e) {
+      // El nivel en curso se revirtió completo; la instancia que tomó el trabajo lo repite y registra el estado
+      log.warn("Trabajo de propagación {} detenido, su lease lo tiene otra instancia", jobId);
+      allNodesChangedAfterError(job);
+    } catch (Exception e) {
+      log.error("Error en trabajo de propagación {}: {}", jobId, e.getMessage(), e);
+      // Los niveles ya terminados quedan aplicados; el catálogo de los descendientes cambió
+      allNodesChangedAfterError(job);
+      updateStatus(jobId, SpreadJobDTO.FAILED, e.getMessage());
+    }
+  }
+
+  /**
+   * Un nivel completo dentro de la transacción: el bloqueo de la fila del trabajo, el borrado,
+   * las inserciones y last_level confirman juntos o se revierten juntos.
+   */
+  private void processLevel(SpreadJobDTO job, int level) {
+    UUID jobId = job.getJobId();
+    Integer lastLevel = parameterRepository.lockSpreadJob(jobId, owner);
+    if (lastLevel == null) {
+      throw new LeaseLostException();
+    }
+    if (lastLevel >= level) {
+      log.debug("Trabajo {} nivel {} ya aplicado", jobId, level);
+      return;
+    }
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue(STATUS, ACTIVE)
+        .addValue(ID_HIERARCHY, job.getIdHierarchy())
+        .addValue(ID_SYSTEM, job.getIdSystem(), Types.INTEGER)
+        .addValue(LEVEL, level);
+    int deleted = execute(DELETE_HIERARCHY_PARAMETERS_CHILD_LEVEL, params);
+    int parameters = execute(INSERT_PARAMETERS_LEVEL, params);
+    int properties = parameters > 0 ? execute(INSERT_PROPERTIES_LEVEL, params) : 0;
+    int progress = execute(UPDATE_SPREAD_JOB_PROGRESS, new MapSqlParameterSource()
+        .addValue(JOB_ID, jobId)
+        .addValue(OWNER, owner)
+        .addValue("lastLevel", level)
+        .addValue("deletedRows", deleted)
+        .addValue("insertedParameters", parameters)
+        .addValue("insertedProperties", properties));
+    if (progress == 0) {
+      throw new LeaseLostException();
+    }
+    log.debug("Trabajo {} nivel {}: eliminados {}, parámetros {}, propiedades {}", jobId, level, deleted, parameters, properties);
+  }
+
+  /**
+   * Si tampoco sube la versión, el trabajo termina como FAILED de todos modos; al reintentarlo
+   * la versión sube con la propagación completa.
+   */
+  private void allNodesChangedAfterError(SpreadJobDTO job) {
+    try {
+      allNodesChanged(job.getIdSystem());
+    } catch (Exception e) {
+      log.error("No se pudo anunciar el cambio del trabajo de propagación {}. Error: {}", job.getJobId(), e.getMessage());
+    }
+  }
+
+  /**
+   * Cada nivel ya quedó confirmado: se invalidan los caches, se sube la versión de parámetros
+   * de todos los nodos (ETag), se avisa a las demás instancias y las lecturas van al primario
+   * hasta que la réplica alcance la propagación. Si la versión no sube, el trabajo no se marca
+   * como COMPLETED: los clientes con ETag seguirían recibiendo 304 con el catálogo anterior.
+   */
+  private void allNodesChanged(Integer idSystem) {
+    parameterRepository.bumpParametersVersion(ALL_NODES);
+    cacheInvalidationChannel.publishAll(idSystem);
+    readYourWritesRouter.markAllWritten();
+    catalogCache.evictAll();
+    effectiveParameterCache.evictAll();
+  }
+
+  private boolean heartbeat(UUID jobId) {
+    return execute(HEARTBEAT_SPREAD_JOB, new MapSqlParameterSource()
+        .addValue(JOB_ID, jobId)
+        .addValue(OWNER, owner)) > 0;
+  }
+
+  /**
+   * updateObject regresa null cuando la sentencia falla; aquí se convierte en error para detener el trabajo
+   */
+  private int execute(String query, MapSqlParameterSource params) {
+    Integer rows = parameterRepository.updateObject(query, params);
+    if (rows == null) {
+      throw new HierarchyException(ERROR_SPREAD_PARAMETER, "Error al ejecutar la propagación");
+    }
+    return rows;
+  }
+
+  private void updateStatus(UUID jobId, String status, String errorMessage) {
+    parameterRepository.updateObject(UPDATE_SPREAD_JOB_STATUS, new MapSqlParameterSource()
+        .addValue(JOB_ID, jobId)
+        .addValue(OWNER, owner)
+        .addValue(STATUS, status)
+        .addValue("errorMessage", errorMessage, Types.VARCHAR));
+  }
+
+  /**
+   * Otra instancia tomó el trabajo porque el lease de esta venció.
+   */
+  private static class LeaseLostException extends RuntimeException {
+    LeaseLostException() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -0,0 +1,499 @@
+package com.smartpayment.nxt.hierarchy.parameters.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Árbol de la jerarquía en arreglos de enteros ordenados en preorden: el subárbol de un
+ * nodo ocupa el rango [posición, fin) (rango de Euler), por lo que enumerar descendientes
+ * o saber si un nodo está bajo otro no recorre el árbol ni consulta hierarchy_path.
+ * Es inmutable; los cambios construyen un árbol nuevo.
+ */
+public final class HierarchyTree {
+  /** Valor para posiciones, padres, tipos y estatus inexistentes */
+  public static final int NONE = -1;
+  public static final HierarchyTree EMPTY = build(new int[0], new int[0], new int[0], new int[0]);
+
+  // Por posición en preorden
+  private final int[] ids;
+  /** posición del padre, NONE en las raíces */
+  private final int[] parents;
+  private final int[] nodeTypes;
+  private final int[] statuses;
+  /** nivel desde 1, igual que nlevel(hierarchy_path) */
+  private final int[] depths;
+  /** fin exclusivo del subárbol */
+  private final int[] ends;
+  // hierarchy_id ordenados y su posición, para buscar por id
+  private final int[] sortedIds;
+  private final int[] sortedPositions;
+  /** nodos descartados por no llegar a una raíz (ciclo en hierarchy_parent_id) */
+  private final int detached;
+  /** hierarchy_id más alto recibido, incluidos los descartados */
+  private final int maxId;
+
+  private HierarchyTree(int[] ids, int[] parents, int[] nodeTypes, int[] statuses, int[] depths, int[] ends,
+                        int[] sortedIds, int[] sortedPositions, int detached, int maxId) {
+    this.ids = ids;
+    this.parents = parents;
+    this.nodeTypes = nodeTypes;
+    this.statuses = statuses;
+    this.depths = depths;
+    this.ends = ends;
+    this.sortedIds = sortedIds;
+    this.sortedPositions = sortedPositions;
+    this.detached = detached;
+    this.maxId = maxId;
+  }
+
+  /**
+   * Construye el árbol a partir de filas de bt_hierarchy en cualquier orden. Si un id se
+   * repite gana la última fila; un padre inexistente deja al nodo como raíz.
+   * @param ids hierarchy_id
+   * @param parentIds hierarchy_parent_id, 0 en las raíces
+   * @param nodeTypes node_type_id
+   * @param statuses hierarchy_status
+   * @return árbol construido
+   */
+  public static HierarchyTree build(int[] ids, int[] parentIds, int[] nodeTypes, int[] statuses) {
+    int rows = ids.length;
+    long[] keyed = new long[rows];
+    for (int row = 0; row < rows; row++) {
+      keyed[row] = ((long) ids[row] << 32) | row;
+    }
+    Arrays.sort(keyed);
+
+    // Índice s: posición en el orden por id, sin repetidos
+    int[] uniqueIds = new int[rows];
+    int[] uniqueRows = new int[rows];
+    int size = 0;
+    for (long key : keyed) {
+      int id = (int) (key >> 32);
+      int row = (int) key;
+      if (size > 0 && uniqueIds[size - 1] == id) {
+        uniqueRows[size - 1] = row;
+      } else {
+        uniqueIds[size] = id;
+        uniqueRows[size] = row;
+        size++;
+      }
+    }
+
+    int[] parentIndex = new int[size];
+    int[] childStart = new int[size + 1];
+    for (int s = 0; s < size; s++) {
+      int parentId = parentIds[uniqueRows[s]];
+      int p = parentId == 0 || parentId == uniqueIds[s] ? NONE : Arrays.binarySearch(uniqueIds, 0, size, parentId);
+      parentIndex[s] = p < 0 ? NONE : p;
+      if (parentIndex[s] != NONE) {
+        childStart[parentIndex[s] + 1]++;
+      }
+    }
+    for (int s = 0; s < size; s++) {
+      childStart[s + 1] += childStart[s];
+    }
+    int[] children = new int[childStart[size]];
+    int[] fill = Arrays.copyOf(childStart, size);
+    for (int s = 0; s < size; s++) {
+      if (parentIndex[s] != NONE) {
+        children[fill[parentIndex[s]]++] = s;
+      }
+    }
+
+    // Preorden iterativo desde cada raíz; los hijos quedan en orden de id
+    int[] position = new int[size];
+    Arrays.fill(position, NONE);
+    int[] order = new int[size];
+    int[] depths = new int[size];
+    int[] ends = new int[size];
+    int[] stack = new int[size];
+    int[] cursor = new int[size];
+    int next = 0;
+    for (int root = 0; root < size; root++) {
+      if (parentIndex[root] != NONE) {
+        continue;
+      }
+      int top = 0;
+      stack[0] = root;
+      cursor[0] = childStart[root];
+      position[root] = next;
+      depths[next] = 1;
+      order[next++] = root;
+      while (top >= 0) {
+        int node = stack[top];
+        if (cursor[top] < childStart[node + 1]) {
+          int child = children[cursor[top]++];
+          position[child] = next;
+          depths[next] = top + 2;
+          order[next++] = child;
+          stack[++top] = child;
+          cursor[top] = childStart[child];
+        } else {
+          ends[position[node]] = next;
+          top--;
+        }
+      }
+    }
+
+    int count = next;
+    int[] treeIds = new int[count];
+    int[] treeParents = new int[count];
+    int[] treeTypes = new int[count];
+    int[] treeStatuses = new int[count];
+    for (int pos = 0; pos < count; pos++) {
+      int s = order[pos];
+      treeIds[pos] = uniqueIds[s];
+      treeParents[pos] = parentIndex[s] != NONE ? position[parentIndex[s]] : NONE;
+      treeTypes[pos] = nodeTypes[uniqueRows[s]];
+      treeStatuses[pos] = statuses[uniqueRows[s]];
+    }
+    int[] sortedIds = new int[count];
+    int[] sortedPositions = new int[count];
+    int k = 0;
+    for (int s = 0; s < size; s++) {
+      if (position[s] != NONE) {
+        sortedIds[k] = uniqueIds[s];
+        sortedPositions[k++] = position[s];
+      }
+    }
+    return new HierarchyTree(treeIds, treeParents, treeTypes, treeStatuses, Arrays.copyOf(depths, count),
+        Arrays.copyOf(ends, count), sortedIds, sortedPositions, size - count, size > 0 ? uniqueIds[size - 1] : 0);
+  }
+
+  /**
+   * Árbol con los nodos agregados o reemplazados, conservando los actuales. Los nodos nuevos
+   * (hierarchy_id mayor a maxId) cuyo padre ya existe o también es nuevo se insertan en los
+   * rangos de sus ancestros sin reconstruir; un reemplazo o un padre desconocido reconstruye todo.
+   */
+  public HierarchyTree withNodes(int[] addedIds, int[] addedParentIds, int[] addedNodeTypes, int[] addedStatuses) {
+    HierarchyTree appended = append(addedIds, addedParentIds, addedNodeTypes, addedStatuses);
+    return appended != null ? appended : rebuild(addedIds, addedParentIds, addedNodeTypes, addedStatuses);
+  }
+
+  /**
+   * Inserta nodos nuevos en una sola pasada. Como sus id son mayores a todos los cargados,
+   * en preorden los hijos nuevos de un nodo existente van al final de su subárbol (ends) y
+   * las raíces nuevas al final del arreglo; si varios nodos terminan su subárbol en la misma
+   * posición, los hijos nuevos del más profundo van primero.
+   * @return árbol nuevo, null si algún nodo no cumple las condiciones
+   */
+  private HierarchyTree append(int[] addedIds, int[] addedParentIds, int[] addedNodeTypes, int[] addedStatuses) {
+    int added = addedIds.length;
+    if (added == 0) {
+      return this;
+    }
+    // k: índice en orden de id; un id repetido o no mayor a maxId es un reemplazo
+    Integer[] rows = new Integer[added];
+    for (int row = 0; row < added; row++) {
+      rows[row] = row;
+    }
+    Arrays.sort(rows, (a, b) -> Integer.compare(addedIds[a], addedIds[b]));
+    int[] newIds = new int[added];
+    for (int k = 0; k < added; k++) {
+      newIds[k] = addedIds[rows[k]];
+      if (newIds[k] <= maxId || (k > 0 && newIds[k] == newIds[k - 1])) {
+        return null;
+      }
+    }
+
+    // Padre de cada nodo nuevo: posición existente (anchor) u otro nodo nuevo, siempre de id menor
+    int[] anchor = new int[added];
+    int[] newParent = new int[added];
+    int[] firstChild = new int[added];
+    int[] lastChild = new int[added];
+    int[] nextSibling = new int[added];
+    Arrays.fill(firstChild, NONE);
+    Arrays.fill(lastChild, NONE);
+    Arrays.fill(nextSibling, NONE);
+    List<Integer> tops = new ArrayList<>();
+    for (int k = 0; k < added; k++) {
+      int parentId = addedParentIds[rows[k]];
+      anchor[k] = NONE;
+      newParent[k] = NONE;
+      if (parentId != 0 && parentId != newIds[k]) {
+        int pos = position(parentId);
+        int p = pos == NONE ? Arrays.binarySearch(newIds, 0, k, parentId) : NONE;
+        if (pos == NONE && p < 0) {
+          // Padre descartado por ciclo o con id mayor: la reconstrucción decide
+          return null;
+        }
+        anchor[k] = pos;
+        if (pos == NONE) {
+          newParent[k] = p;
+          if (lastChild[p] == NONE) {
+            firstChild[p] = k;
+          } else {
+            nextSibling[lastChild[p]] = k;
+          }
+          lastChild[p] = k;
+          continue;
+        }
+      }
+      tops.add(k);
+    }
+    int current = ids.length;
+    tops.sort((a, b) -> {
+      int byPosition = Integer.compare(insertionPoint(anchor[a]), insertionPoint(anchor[b]));
+      return byPosition != 0 ? byPosition : Integer.compare(anchorDepth(anchor[b]), anchorDepth(anchor[a]));
+    });
+
+    // Bloque insertado en preorden; i: índice en el bloque
+    int[] order = new int[added];
+    int[] blockIndex = new int[added];
+    int[] insertAt = new int[added];
+    int[] topDepth = new int[added];
+    int[] newDepths = new int[added];
+    int[] stack = new int[added];
+    int[] cursor = new int[added];
+    int filled = 0;
+    for (int top : tops) {
+      int at = insertionPoint(anchor[top]);
+      int base = anchorDepth(anchor[top]);
+      int sp = 0;
+      stack[sp] = top;
+      cursor[sp++] = firstChild[top];
+      blockIndex[top] = filled;
+      newDepths[filled] = base + 1;
+      order[filled++] = top;
+      while (sp > 0) {
+        int child = cursor[sp - 1];
+        if (child == NONE) {
+          sp--;
+          continue;
+        }
+        cursor[sp - 1] = nextSibling[child];
+        stack[sp] = child;
+        cursor[sp++] = firstChild[child];
+        blockIndex[child] = filled;
+        newDepths[filled] = base + sp;
+        order[filled++] = child;
+      }
+      for (int i = blockIndex[top]; i < filled; i++) {
+        insertAt[i] = at;
+        topDepth[i] = base;
+      }
+    }
+    int[] sizes = new int[added];
+    Arrays.fill(sizes, 1);
+    for (int i = added - 1; i >= 0; i--) {
+      int parent = newParent[order[i]];
+      if (parent != NONE) {
+        sizes[blockIndex[parent]] += sizes[i];
+      }
+    }
+
+    // before[x]: insertados en posiciones anteriores a x
+    int[] before = new int[current + 2];
+    for (int i = 0; i < added; i++) {
+      before[insertAt[i] + 1]++;
+    }
+    for (int x = 0; x <= current; x++) {
+      before[x + 1] += before[x];
+    }
+    int[] oldToNew = new int[current];
+    for (int pos = 0; pos < current; pos++) {
+      oldToNew[pos] = pos + before[pos + 1];
+    }
+
+    int total = current + added;
+    int[] treeIds = new int[total];
+    int[] treeParents = new int[total];
+    int[] treeTypes = new int[total];
+    int[] treeStatuses = new int[total];
+    int[] treeDepths = new int[total];
+    int[] treeEnds = new int[total];
+    for (int pos = 0; pos < current; pos++) {
+      int q = oldToNew[pos];
+      treeIds[q] = ids[pos];
+      treeParents[q] = parents[pos] != NONE ? oldToNew[parents[pos]] : NONE;
+      treeTypes[q] = nodeTypes[pos];
+      treeStatuses[q] = statuses[pos];
+      treeDepths[q] = depths[pos];
+      // Del bloque insertado en ends[pos] solo quedan dentro los hijos nuevos de pos o de su rama derecha
+      int end = ends[pos];
+      treeEnds[q] = end + lastInside(topDepth, before[end], before[end + 1], depths[pos]);
+    }
+    for (int i = 0; i < added; i++) {
+      int k = order[i];
+      int q = insertAt[i] + i;
+      treeIds[q] = newIds[k];
+      treeParents[q] = newParent[k] != NONE ? insertAt[blockIndex[newParent[k]]] + blockIndex[newParent[k]]
+          : anchor[k] != NONE ? oldToNew[anchor[k]] : NONE;
+      treeTypes[q] = addedNodeTypes[rows[k]];
+      treeStatuses[q] = addedStatuses[rows[k]];
+      treeDepths[q] = newDepths[i];
+      treeEnds[q] = q + sizes[i];
+    }
+
+    int known = sortedIds.length;
+    int[] treeSortedIds = Arrays.copyOf(sortedIds, known + added);
+    int[] treeSortedPositions = new int[known + added];
+    for (int s = 0; s < known; s++) {
+      treeSortedPositions[s] = oldToNew[sortedPositions[s]];
+    }
+    for (int k = 0; k < added; k++) {
+      treeSortedIds[known + k] = newIds[k];
+      treeSortedPositions[known + k] = insertAt[blockIndex[k]] + blockIndex[k];
+    }
+    return new HierarchyTree(treeIds, treeParents, treeTypes, treeStatuses, treeDepths, treeEnds,
+        treeSortedIds, treeSortedPositions, detached, newIds[added - 1]);
+  }
+
+  private int insertionPoint(int anchor) {
+    return anchor != NONE ? ends[anchor] : ids.length;
+  }
+
+  private int anchorDepth(int anchor) {
+    return anchor != NONE ? depths[anchor] : 0;
+  }
+
+  /**
+   * En [from, to) topDepth no crece; regresa el índice siguiente al último con profundidad mayor o igual a depth.
+   */
+  private static int lastInside(int[] topDepth, int from, int to, int depth) {
+    int low = from;
+    int high = to;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (topDepth[mid] >= depth) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private HierarchyTree rebuild(int[] addedIds, int[] addedParentIds, int[] addedNodeTypes, int[] addedStatuses) {
+    int current = ids.length;
+    int total = current + addedIds.length;
+    int[] allIds = Arrays.copyOf(ids, total);
+    int[] allParents = new int[total];
+    int[] allTypes = Arrays.copyOf(nodeTypes, total);
+    int[] allStatuses = Arrays.copyOf(statuses, total);
+    for (int pos = 0; pos < current; pos++) {
+      allParents[pos] = parents[pos] != NONE ? ids[parents[pos]] : 0;
+    }
+    System.arraycopy(addedIds, 0, allIds, current, addedIds.length);
+    System.arraycopy(addedParentIds, 0, allParents, current, addedIds.length);
+    System.arraycopy(addedNodeTypes, 0, allTypes, current, addedIds.length);
+    System.arraycopy(addedStatuses, 0, allStatuses, current, addedIds.length);
+    return build(allIds, allParents, allTypes, allStatuses);
+  }
+
+  public int size() {
+    return ids.length;
+  }
+
+  public int detached() {
+    return detached;
+  }
+
+  /**
+   * @return hierarchy_id más alto cargado, 0 si está vacío
+   */
+  public int maxId() {
+    return maxId;
+  }
+
+  public boolean contains(int id) {
+    return position(id) != NONE;
+  }
+
+  /**
+   * @return true si id está en el subárbol de ancestorId, sin contar al propio ancestorId
+   */
+  public boolean isDescendant(int id, int ancestorId) {
+    int pos = position(id);
+    int ancestor = position(ancestorId);
+    return pos != NONE && ancestor != NONE && pos > ancestor && pos < ends[ancestor];
+  }
+
+  /**
+   * @return número de descendientes del nodo, NONE si no está en el árbol
+   */
+  public int countDescendants(int id) {
+    int pos = position(id);
+    return pos != NONE ? ends[pos] - pos - 1 : NONE;
+  }
+
+  /**
+   * @return hierarchy_id de los descendientes en preorden, sin el propio nodo; null si no está en el árbol
+   */
+  public int[] descendants(int id) {
+    int pos = position(id);
+    return pos != NONE ? Arrays.copyOfRange(ids, pos + 1, ends[pos]) : null;
+  }
+
+  /**
+   * @return hierarchy_id de los descendientes con el nivel indicado; null si el nodo no está en el árbol
+   */
+  public int[] descendantsAtDepth(int id, int depth) {
+    int pos = position(id);
+    if (pos == NONE) {
+      return null;
+    }
+    int[] result = new int[ends[pos] - pos - 1];
+    int count = 0;
+    for (int i = pos + 1; i < ends[pos]; i++) {
+      if (depths[i] == depth) {
+        result[count++] = ids[i];
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  /**
+   * @return nivel del nodo (1 en las raíces), NONE si no está en el árbol
+   */
+  public int depth(int id) {
+    int pos = position(id);
+    return pos != NONE ? depths[pos] : NONE;
+  }
+
+  /**
+   * @return nivel más profundo del subárbol, el del propio nodo si no tiene descendientes; NONE si no está
+   */
+  public int maxDepth(int id) {
+    int pos = position(id);
+    if (pos == NONE) {
+      return NONE;
+    }
+    int max = depths[pos];
+    for (int i = pos + 1; i < ends[pos]; i++) {
+      max = Math.max(max, depths[i]);
+    }
+    return max;
+  }
+
+  /**
+   * @return el nodo y sus ancestros, del más cercano a la raíz; null si no está en el árbol
+   */
+  public List<Integer> ancestors(int id) {
+    int pos = position(id);
+    if (pos == NONE) {
+      return null;
+    }
+    List<Integer> chain = new ArrayList<>(depths[pos]);
+    for (int p = pos; p != NONE; p = parents[p]) {
+      chain.add(ids[p]);
+    }
+    return chain;
+  }
+
+  public int nodeType(int id) {
+    int pos = position(id);
+    return pos != NONE ? nodeTypes[pos] : NONE;
+  }
+
+  public int status(int id) {
+    int pos = position(id);
+    return pos != NONE ? statuses[pos] : NONE;
+  }
+
+  private int position(int id) {
+    int i = Arrays.binarySearch(sortedIds, id);
+    return i >= 0 ? sortedPositions[i] : NONE;
+  }
+}
@@ -3,10 +3,15 @@ package com.smartpayment.nxt.hierarchy.parameters.util;
 
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Map;
 
 public final class ParamUtils {
 
+    private static final String CURSOR_VERSION = "v1:";
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
     private ParamUtils() {
         // Constructor privado para evitar la instanciación
     }
@@ -25,6 +30,33 @@ public final class ParamUtils {
         return (division * size < totalRecords) ? division + 1 : division;
     }
 
+    /**
+     * Codifica el último hierarchy_property_id entregado como cursor opaco.
+     * @param lastId último id de la página
+     * @return cursor en Base64 URL-safe
+     */
+    public static String encodeCursor(int lastId) {
+        return CURSOR_ENCODER.encodeToString((CURSOR_VERSION + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor generado por {@link #encodeCursor(int)}. Un cursor vacío
+     * indica la primera página.
+     * @param cursor cursor recibido del cliente
+     * @return último id entregado, 0 para la primera página
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static int decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!value.startsWith(CURSOR_VERSION)) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+        return Integer.parseInt(value.substring(CURSOR_VERSION.length()));
+    }
+
     /**
      * Crea los parámetros para la consulta de `getTipAll`.
      * @param pHierarchyParameterName ID de jerarquía padre
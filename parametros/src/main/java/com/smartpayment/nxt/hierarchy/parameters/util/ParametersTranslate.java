@@ -3,14 +3,12 @@ package com.smartpayment.nxt.hierarchy.parameters.util;
 import com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ParameterPropertyObjectDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseDataParameterDTO;
-import com.smartpayment.nxt.hierarchy.parameters.dto.TranslateDTO;
 import com.smartpayments.nxt.dto.ResponseCodeDTO;
 import com.smartpayments.nxt.model.ResponseDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Optional;
 @Slf4j
 @Service
 public class ParametersTranslate {
@@ -18,57 +16,34 @@ public class ParametersTranslate {
    * Translate the response data parameter
    * @param response
    * @param code
-   * @param listTranslate
+   * @param translations
    * @return
    */
 
-  public ResponseDataParameterDTO getTranslateResponseDataParameter(ResponseDataParameterDTO response, String code, List<TranslateDTO> listTranslate) {
-    ResponseCodeDTO codeResponse = ResponseCodeDTO.builder()
-        .code(code)
-        .htmlMessage(getMessge(code, listTranslate))
-        .message(getMessge(code, listTranslate))
-        .build();
-    response.setResponseCode(codeResponse);
+  public ResponseDataParameterDTO getTranslateResponseDataParameter(ResponseDataParameterDTO response, String code, TranslationIndex translations) {
+    response.setResponseCode(translations.getResponseCode(code));
     return response;
   }
 
-  private String getMessge(String code, List<TranslateDTO> listTranslate) {
-    Optional<TranslateDTO> dto =
-        listTranslate.stream()
-            .filter(translate -> code.equals(translate.getCodeMessage()))
-            .findFirst();
-    if(dto.isPresent())
-      return dto.get().getMessage();
-    return code;
-  }
-
   /**
    * Translate the response template
    * @param listParaemtersProperty
    * @param code
-   * @param listTranslate
+   * @param translations
    * @return
    */
-  public ResponseDTO getTranslateTemplate(List<ParameterPropertyObjectDTO> listParaemtersProperty, String code,List<TranslateDTO> listTranslate) {
-    ResponseCodeDTO dto = ResponseCodeDTO.builder().code(code)
-        .htmlMessage(getMessge(code, listTranslate))
-        .message(getMessge(code, listTranslate))
-        .build();
-    return ResponseDTO.builder().list(listParaemtersProperty).responseCode(dto).build();
+  public ResponseDTO getTranslateTemplate(List<ParameterPropertyObjectDTO> listParaemtersProperty, String code, TranslationIndex translations) {
+    return ResponseDTO.builder().list(listParaemtersProperty).responseCode(translations.getResponseCode(code)).build();
   }
   /**
    * Translate the response group
    * @param groupedParameterDTO
    * @param code
-   * @param listTranslate
+   * @param translations
    * @return
    */
-  public ResponseDTO getTranslateGroup(Object groupedParameterDTO, String code, List<TranslateDTO> listTranslate) {
-    ResponseCodeDTO dto = ResponseCodeDTO.builder().code(code)
-        .htmlMessage(getMessge(code, listTranslate))
-        .message(getMessge(code, listTranslate))
-        .build();
-    return ResponseDTO.builder().clazz(groupedParameterDTO).responseCode(dto).build();
+  public ResponseDTO getTranslateGroup(Object groupedParameterDTO, String code, TranslationIndex translations) {
+    return ResponseDTO.builder().clazz(groupedParameterDTO).responseCode(translations.getResponseCode(code)).build();
   }
 
   public static ResponseCodeDTO buildResponseCode(String code, String message) {
@@ -0,0 +1,59 @@
+package com.smartpayment.nxt.hierarchy.parameters.util;
+
+import org.springframework.transaction.SavepointManager;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+public final class TransactionUtils {
+
+    private TransactionUtils() {
+        // Constructor privado para evitar la instanciación
+    }
+
+    /**
+     * Ejecuta la acción al confirmar la transacción actual, o de inmediato si no hay transacción.
+     * @param action acción a ejecutar; no se ejecuta si la transacción se revierte
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Ejecuta la acción dentro de un savepoint de la transacción actual: si falla se revierte solo
+     * lo que hizo la acción y la transacción sigue utilizable (en PostgreSQL un error la aborta completa).
+     * Sin transacción se ejecuta directo.
+     * @param action acción a ejecutar
+     * @return resultado de la acción
+     */
+    public static <T> T inSavepoint(Supplier<T> action) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        return inSavepoint(TransactionAspectSupport.currentTransactionStatus(), action);
+    }
+
+    static <T> T inSavepoint(SavepointManager transaction, Supplier<T> action) {
+        Object savepoint = transaction.createSavepoint();
+        try {
+            T result = action.get();
+            transaction.releaseSavepoint(savepoint);
+            return result;
+        } catch (RuntimeException e) {
+            transaction.rollbackToSavepoint(savepoint);
+            transaction.releaseSavepoint(savepoint);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.smartpayment.nxt.hierarchy.parameters.util;
+
+import com.smartpayment.nxt.hierarchy.parameters.dto.TranslateDTO;
+import com.smartpayments.nxt.dto.ResponseCodeDTO;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice code_message -> ResponseCodeDTO de un idioma. Los ResponseCodeDTO se
+ * construyen una sola vez y se comparten entre respuestas, por lo que no deben
+ * modificarse después de obtenerlos.
+ */
+public final class TranslationIndex {
+  public static final TranslationIndex EMPTY = new TranslationIndex(Collections.emptyList());
+
+  private final Map<String, ResponseCodeDTO> responseCodes;
+  /** Códigos sin traducción; se responden con el propio código como mensaje */
+  private final Map<String, ResponseCodeDTO> untranslated = new ConcurrentHashMap<>();
+
+  public TranslationIndex(List<TranslateDTO> translations) {
+    Map<String, ResponseCodeDTO> index = new HashMap<>(translations.size() * 2);
+    for (TranslateDTO translate : translations) {
+      if (translate.getCodeMessage() != null) {
+        index.putIfAbsent(translate.getCodeMessage(), buildResponseCode(translate.getCodeMessage(), translate.getMessage()));
+      }
+    }
+    this.responseCodes = Collections.unmodifiableMap(index);
+  }
+
+  /**
+   * Obtiene el ResponseCodeDTO prearmado para el código.
+   * @param code código del mensaje
+   * @return ResponseCodeDTO compartido, con el código como mensaje si no hay traducción
+   */
+  public ResponseCodeDTO getResponseCode(String code) {
+    ResponseCodeDTO responseCode = responseCodes.get(code);
+    if (responseCode != null) {
+      return responseCode;
+    }
+    return untranslated.computeIfAbsent(code, c -> buildResponseCode(c, c));
+  }
+
+  /**
+   * Obtiene el mensaje traducido del código, o el propio código si no existe.
+   * @param code código del mensaje
+   * @return mensaje traducido
+   */
+  public String getMessage(String code) {
+    ResponseCodeDTO responseCode = responseCodes.get(code);
+    return responseCode != null ? responseCode.getMessage() : code;
+  }
+
+  public int size() {
+    return responseCodes.size();
+  }
+
+  private static ResponseCodeDTO buildResponseCode(String code, String message) {
+    return ResponseCodeDTO.builder()
+        .code(code)
+        .htmlMessage(message)
+        .message(message)
+        .build();
+  }
+}
@@ -0,0 +1,9 @@
+-- Version de los parametros de cada nodo para los ETag de catalogo, template y datos.
+-- Se aplica antes del despliegue con un usuario con DDL (o al arrancar con hierarchy.schema.init.enabled=true).
+-- Cada escritura de ParameterServiceImpl incrementa la fila del nodo en la misma
+-- transaccion; las propagaciones incrementan la fila hierarchy_id = 0 (todos los nodos).
+create table if not exists hierarchy.bt_hierarchy_parameters_version (
+    hierarchy_id integer   primary key,
+    version      bigint    not null,
+    updated_at   timestamp not null default now()
+);
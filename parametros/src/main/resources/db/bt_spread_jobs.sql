@@ -0,0 +1,24 @@
+-- Trabajos de propagacion (PUT /spread/jobs). Cada nivel de hierarchy_path
+-- terminado se registra en last_level para reanudar despues de un reinicio.
+-- owner es la instancia que lo ejecuta; renueva updated_at (lease) mientras corre.
+create table if not exists hierarchy.bt_spread_jobs (
+    job_id              uuid primary key,
+    hierarchy_id        integer     not null,
+    parameter_id        integer,
+    status              varchar(20) not null,
+    root_level          integer     not null,
+    max_level           integer     not null,
+    last_level          integer     not null,
+    deleted_rows        bigint      not null default 0,
+    inserted_parameters bigint      not null default 0,
+    inserted_properties bigint      not null default 0,
+    error_message       text,
+    owner               varchar(128),
+    created_at          timestamp   not null default now(),
+    updated_at          timestamp   not null default now()
+);
+
+create index if not exists bt_spread_jobs_status_idx
+    on hierarchy.bt_spread_jobs (status, updated_at);
+
+alter table hierarchy.bt_spread_jobs add column if not exists owner varchar(128);
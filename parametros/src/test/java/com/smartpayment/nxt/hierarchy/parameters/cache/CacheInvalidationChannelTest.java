@@ -0,0 +1,179 @@
+package com.smartpayment.nxt.hierarchy.parameters.cache;
+
+import com.smartpayment.nxt.hierarchy.parameters.repository.ParametersRepository;
+import com.smartpayment.nxt.hierarchy.parameters.repository.impl.ReadYourWritesRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.stubbing.Answer;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CacheInvalidationChannelTest {
+  private static final String CHANNEL = "hierarchy_parameters_changed";
+  private static final String OTHER = "otra-instancia";
+
+  private final ParametersRepository repository = mock(ParametersRepository.class);
+  private final DataSource dataSource = mock(DataSource.class);
+  private final CatalogCache catalogCache = mock(CatalogCache.class);
+  private final EffectiveParameterCache effectiveParameterCache = mock(EffectiveParameterCache.class);
+  private final HierarchyNodeCache hierarchyNodeCache = mock(HierarchyNodeCache.class);
+  private final HierarchyIndex hierarchyIndex = mock(HierarchyIndex.class);
+  private final ReadYourWritesRouter readYourWritesRouter = mock(ReadYourWritesRouter.class);
+  private final CountDownLatch stopped = new CountDownLatch(1);
+  private CacheInvalidationChannel channel;
+
+  @BeforeEach
+  void setUp() {
+    channel = new CacheInvalidationChannel(repository, new NamedParameterJdbcTemplate(dataSource),
+        catalogCache, effectiveParameterCache, hierarchyNodeCache, hierarchyIndex, readYourWritesRouter,
+        new SimpleMeterRegistry(), true, CHANNEL, Duration.ofMillis(10), Duration.ZERO);
+  }
+
+  @AfterEach
+  void tearDown() {
+    channel.stop();
+  }
+
+  @Test
+  void shouldIgnoreOwnAndMalformedNotifications() throws Exception {
+    PGNotification[] received = notifications(ownPayload(5), "sin-formato", OTHER + ":abc:7", null);
+    PGConnection pgConnection = mock(PGConnection.class);
+    when(pgConnection.getNotifications(anyInt())).thenReturn(received).thenAnswer(stop());
+    Connection connection = connection(pgConnection);
+    when(dataSource.getConnection()).thenReturn(connection);
+
+    listen();
+
+    verify(catalogCache, never()).evict(any());
+    verify(effectiveParameterCache, never()).evict(any());
+    verify(readYourWritesRouter, never()).markWritten(anyCollection());
+    verify(hierarchyIndex, never()).sync();
+    // Solo la invalidación completa de la primera conexión
+    verify(catalogCache, times(1)).evictAll();
+    verify(hierarchyIndex, never()).refresh();
+  }
+
+  @Test
+  void shouldEvictNodesOfOtherInstancesAfterMarkingTheRouter() throws Exception {
+    PGNotification[] received = notifications(OTHER + ":5:7", OTHER + ":6:", OTHER + ":5:8");
+    PGConnection pgConnection = mock(PGConnection.class);
+    when(pgConnection.getNotifications(anyInt())).thenReturn(received).thenAnswer(stop());
+    Connection connection = connection(pgConnection);
+    when(dataSource.getConnection()).thenReturn(connection);
+
+    listen();
+
+    InOrder order = inOrder(readYourWritesRouter, catalogCache, effectiveParameterCache, hierarchyNodeCache, hierarchyIndex);
+    order.verify(readYourWritesRouter).markWritten(Set.of(5, 6));
+    order.verify(catalogCache).evict(5);
+    order.verify(effectiveParameterCache).evict(5);
+    order.verify(hierarchyNodeCache).evict(5);
+    order.verify(catalogCache).evict(6);
+    order.verify(hierarchyIndex).sync();
+    verify(catalogCache, times(1)).evictAll();
+    verify(readYourWritesRouter, times(1)).markAllWritten();
+  }
+
+  @Test
+  void shouldEvictEverythingOnAllNodesNotification() throws Exception {
+    PGNotification[] received = notifications(OTHER + ":5:7", OTHER + ":0:7");
+    PGConnection pgConnection = mock(PGConnection.class);
+    when(pgConnection.getNotifications(anyInt())).thenReturn(received).thenAnswer(stop());
+    Connection connection = connection(pgConnection);
+    when(dataSource.getConnection()).thenReturn(connection);
+
+    listen();
+
+    // La primera conexión y la notificación de todos los nodos
+    verify(readYourWritesRouter, times(2)).markAllWritten();
+    verify(catalogCache, times(2)).evictAll();
+    verify(effectiveParameterCache, times(2)).evictAll();
+    verify(hierarchyNodeCache, times(2)).evictAll();
+    verify(catalogCache, never()).evict(any());
+    verify(readYourWritesRouter, never()).markWritten(anyCollection());
+    verify(hierarchyIndex).sync();
+  }
+
+  @Test
+  void shouldEvictAllAndReloadIndexWhenReconnecting() throws Exception {
+    PGConnection lost = mock(PGConnection.class);
+    when(lost.getNotifications(anyInt())).thenThrow(new SQLException("conexion cerrada"));
+    PGConnection reconnected = mock(PGConnection.class);
+    when(reconnected.getNotifications(anyInt())).thenAnswer(stop());
+    Connection first = connection(lost);
+    Connection second = connection(reconnected);
+    when(dataSource.getConnection()).thenReturn(first, second);
+
+    listen();
+
+    verify(first).close();
+    verify(readYourWritesRouter, times(2)).markAllWritten();
+    verify(catalogCache, times(2)).evictAll();
+    verify(effectiveParameterCache, times(2)).evictAll();
+    verify(hierarchyNodeCache, times(2)).evictAll();
+    // Solo al reconectar: en la primera conexión el índice acaba de cargarse
+    verify(hierarchyIndex, times(1)).refresh();
+  }
+
+  private void listen() throws InterruptedException {
+    channel.start();
+    assertTrue(stopped.await(5, TimeUnit.SECONDS), "El listener no terminó");
+  }
+
+  private Answer<PGNotification[]> stop() {
+    return invocation -> {
+      channel.stop();
+      stopped.countDown();
+      return null;
+    };
+  }
+
+  private String ownPayload(Integer idHierarchy) {
+    channel.publish(idHierarchy, null);
+    ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+    verify(repository).notifyChange(eq(CHANNEL), payload.capture());
+    return payload.getValue();
+  }
+
+  private static Connection connection(PGConnection pgConnection) throws SQLException {
+    Connection connection = mock(Connection.class);
+    when(connection.createStatement()).thenReturn(mock(Statement.class));
+    when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+    return connection;
+  }
+
+  private static PGNotification[] notifications(String... payloads) {
+    PGNotification[] notifications = new PGNotification[payloads.length];
+    for (int i = 0; i < payloads.length; i++) {
+      notifications[i] = mock(PGNotification.class);
+      when(notifications[i].getParameter()).thenReturn(payloads[i]);
+    }
+    return notifications;
+  }
+}
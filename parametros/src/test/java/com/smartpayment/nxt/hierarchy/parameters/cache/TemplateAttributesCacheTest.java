@@ -0,0 +1,43 @@
+package com.smartpayment.nxt.hierarchy.parameters.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartpayment.nxt.hierarchy.parameters.dto.ElementoParameterPropertyDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TemplateAttributesCacheTest {
+
+  private static final String JSON = "[{\"label\":\"Monto\",\"data_type\":\"numeric\",\"field_name\":\"amount\","
+      + "\"default_value\":\"0\",\"place_holder\":\"0.00\",\"required\":true,\"extra\":1}]";
+
+  private final TemplateAttributesCache cache = new TemplateAttributesCache(new ObjectMapper(), new SimpleMeterRegistry(), 100);
+
+  @Test
+  void shouldParseSnakeCaseAttributes() {
+    List<ElementoParameterPropertyDTO> elements = cache.getElements(1, JSON);
+    assertEquals(1, elements.size());
+    assertEquals("numeric", elements.get(0).getDataType());
+    assertEquals("amount", elements.get(0).getFieldName());
+    assertEquals("0", elements.get(0).getDefaultValue());
+    assertEquals("0.00", elements.get(0).getPlaceHolder());
+    assertTrue(elements.get(0).getRequired());
+  }
+
+  @Test
+  void shouldReuseParsedElementsForSameContent() {
+    assertSame(cache.getElements(1, JSON), cache.getElements(1, new String(JSON)));
+    assertNotSame(cache.getElements(1, JSON), cache.getElements(1, JSON.replace("Monto", "Importe")));
+  }
+
+  @Test
+  void shouldReturnEmptyListForInvalidJson() {
+    assertTrue(cache.getElements(2, "{invalido").isEmpty());
+  }
+}
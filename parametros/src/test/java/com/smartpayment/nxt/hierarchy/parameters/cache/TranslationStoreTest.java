@@ -0,0 +1,66 @@
+package com.smartpayment.nxt.hierarchy.parameters.cache;
+
+import com.smartpayment.nxt.hierarchy.parameters.dto.TranslateDTO;
+import com.smartpayment.nxt.hierarchy.parameters.repository.ParametersRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.smartpayment.nxt.hierarchy.parameters.controller.ParameterController.MODULE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+class TranslationStoreTest {
+
+  @Mock
+  private ParametersRepository parametersRepository;
+  @InjectMocks
+  private TranslationStore translationStore;
+
+  private final List<TranslateDTO> spanish = List.of(new TranslateDTO("code_200", "Consulta exitosa"));
+  private final List<TranslateDTO> english = List.of(new TranslateDTO("code_200", "Query successful"));
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(parametersRepository.getAllTranslate(anyList()))
+        .thenReturn(Map.of(MODULE, Map.of("es", spanish, "en", english)));
+    translationStore.refresh();
+  }
+
+  @Test
+  void shouldResolveExactAndBaseLanguage() {
+    assertEquals("Query successful", translationStore.getTranslations(MODULE, "en").getMessage("code_200"));
+    assertEquals("Query successful", translationStore.getTranslations(MODULE, "en-US").getMessage("code_200"));
+    assertEquals("Query successful", translationStore.getTranslations(MODULE, "fr-FR,en;q=0.8,es;q=0.5").getMessage("code_200"));
+  }
+
+  @Test
+  void shouldFallbackToSpanish() {
+    assertEquals("Consulta exitosa", translationStore.getTranslations(MODULE, "fr").getMessage("code_200"));
+    assertEquals("Consulta exitosa", translationStore.getTranslations(MODULE, "").getMessage("code_200"));
+    assertEquals("Consulta exitosa", translationStore.getTranslations(MODULE, ";;invalid").getMessage("code_200"));
+  }
+
+  @Test
+  void shouldKeepPreviousTranslationsWhenRefreshFails() {
+    when(parametersRepository.getAllTranslate(anyList())).thenThrow(new RuntimeException("db down"));
+    translationStore.refresh();
+    assertEquals("Consulta exitosa", translationStore.getTranslations(MODULE, "es").getMessage("code_200"));
+    assertEquals(0, translationStore.getTranslations("otro", "es").size());
+  }
+
+  @Test
+  void shouldReuseResponseCodePerLanguage() {
+    assertSame(translationStore.getTranslations(MODULE, "es").getResponseCode("code_200"),
+        translationStore.getTranslations(MODULE, "es-MX").getResponseCode("code_200"));
+    assertEquals("code_404", translationStore.getTranslations(MODULE, "es").getResponseCode("code_404").getMessage());
+  }
+}
@@ -0,0 +1,80 @@
+package com.smartpayment.nxt.hierarchy.parameters.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StreamingAsyncConfigTest {
+
+  private CallableProcessingInterceptor callableInterceptor;
+  private DeferredResultProcessingInterceptor deferredInterceptor;
+
+  @BeforeEach
+  void setUp() {
+    AsyncSupportConfigurer configurer = mock(AsyncSupportConfigurer.class);
+    new StreamingAsyncConfig(Duration.ZERO, Duration.ofMinutes(10)).configureAsyncSupport(configurer);
+    verify(configurer).setDefaultTimeout(StreamingAsyncConfig.NO_TIMEOUT);
+    ArgumentCaptor<CallableProcessingInterceptor> callable = ArgumentCaptor.forClass(CallableProcessingInterceptor.class);
+    ArgumentCaptor<DeferredResultProcessingInterceptor> deferred = ArgumentCaptor.forClass(DeferredResultProcessingInterceptor.class);
+    verify(configurer).registerCallableInterceptors(callable.capture());
+    verify(configurer).registerDeferredResultInterceptors(deferred.capture());
+    callableInterceptor = callable.getValue();
+    deferredInterceptor = deferred.getValue();
+  }
+
+  @Test
+  void shouldApplyStreamingTimeoutToMarkedRequests() throws Exception {
+    MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+    StreamingAsyncConfig.markStreaming(servletRequest);
+    AsyncWebRequest request = asyncRequest(servletRequest);
+
+    deferredInterceptor.beforeConcurrentHandling(request, new DeferredResult<>());
+    callableInterceptor.beforeConcurrentHandling(request, () -> null);
+
+    verify(request, times(2)).setTimeout(600_000L);
+  }
+
+  @Test
+  void shouldKeepDefaultTimeoutForOtherRequests() throws Exception {
+    AsyncWebRequest request = asyncRequest(new MockHttpServletRequest());
+
+    deferredInterceptor.beforeConcurrentHandling(request, new DeferredResult<>());
+    callableInterceptor.beforeConcurrentHandling(request, () -> null);
+
+    verify(request, never()).setTimeout(anyLong());
+  }
+
+  @Test
+  void shouldApplyConfiguredDefaultTimeoutToOtherRequests() {
+    AsyncSupportConfigurer configurer = mock(AsyncSupportConfigurer.class);
+
+    new StreamingAsyncConfig(Duration.ofHours(1), Duration.ofMinutes(10)).configureAsyncSupport(configurer);
+
+    verify(configurer).setDefaultTimeout(3_600_000L);
+  }
+
+  private static AsyncWebRequest asyncRequest(MockHttpServletRequest servletRequest) {
+    AsyncWebRequest request = mock(AsyncWebRequest.class);
+    when(request.getAttribute(anyString(), eq(RequestAttributes.SCOPE_REQUEST)))
+        .thenAnswer(invocation -> servletRequest.getAttribute(invocation.getArgument(0)));
+    return request;
+  }
+}
@@ -1,6 +1,8 @@
 package com.smartpayment.nxt.hierarchy.parameters.controller;
 
+import com.smartpayment.nxt.hierarchy.parameters.cache.TranslationStore;
 import com.smartpayment.nxt.hierarchy.parameters.dto.TranslateDTO;
+import com.smartpayment.nxt.hierarchy.parameters.exception.HierarchyException;
 import com.smartpayments.nxt.dto.ResponseCodeDTO;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -12,24 +14,35 @@ import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseDataParameterDTO;
 import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseParameterDTO;
 import com.smartpayment.nxt.hierarchy.parameters.service.ParameterService;
 import com.smartpayment.nxt.hierarchy.parameters.util.ParametersTranslate;
+import com.smartpayment.nxt.hierarchy.parameters.util.TranslationIndex;
 import com.smartpayments.nxt.model.ResponseDTO;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ERROR_GROUP_PARAMETER;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ERROR_NODE_ENABLED;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.junit.jupiter.api.BeforeEach;
-import org.springframework.test.util.ReflectionTestUtils;
 
 class ParameterControllerTest {
 
@@ -38,18 +51,21 @@ class ParameterControllerTest {
   private static final String ESPANOL = "es";
   @Mock
   private ParametersTranslate parametersTranslate;
-  private List<TranslateDTO> translations;
+  @Mock
+  private TranslationStore translationStore;
+  private TranslationIndex translations;
   @InjectMocks
   private ParameterController parameterController;
 
   private List<TranslateDTO> listTranslate=new ArrayList<>();
   @BeforeEach
   void setUp() {
-    translations = List.of(
+    translations = new TranslationIndex(List.of(
         new TranslateDTO("nxt-msa-hierarchy-parameter_200_04", "Actualización exitosa"),
         new TranslateDTO("nxt-msa-hierarchy-parameter_200_05", "Eliminación exitosa")
-    );
+    ));
     MockitoAnnotations.openMocks(this);
+    when(parametersService.getParametersETag(any())).thenReturn(CompletableFuture.completedFuture(null));
   }
 
   @Test
@@ -60,20 +76,19 @@ class ParameterControllerTest {
     ResponseDTO expectedResponse = new ResponseDTO();
 
     // Lista de traducciones simulada
-    List<TranslateDTO> fakeTranslations = List.of(
+    TranslationIndex fakeTranslations = new TranslationIndex(List.of(
         TranslateDTO.builder()
             .codeMessage("nxt-msa-hierarchy-parameter_200_01")
             .message("ok")
             .build()
-    );
+    ));
 
     // Mock del resultado de getCatalog
     when(parametersService.getCatalog(id))
         .thenReturn(CompletableFuture.completedFuture(groupedParameterDTO));
 
     // Mock del cache de traducciones
-    when(parametersService.getTranslate(ESPANOL))
-        .thenReturn(CompletableFuture.completedFuture(fakeTranslations));
+    when(translationStore.getTranslations(ParameterController.MODULE, ESPANOL)).thenReturn(fakeTranslations);
 
     // Mock del ensamblado final del ResponseDTO
     when(parametersTranslate.getTranslateGroup(
@@ -84,11 +99,11 @@ class ParameterControllerTest {
 
     // Act
     ResponseDTO actualResponse = parameterController.getCatalog(
-        id, mock(ServletResponse.class), "es");
+        id, mock(ServletResponse.class), null, "es").join().getBody();
 
     // Assert
     verify(parametersService).getCatalog(id);
-    verify(parametersService).getTranslate(ESPANOL);
+    verify(translationStore).getTranslations(ParameterController.MODULE, ESPANOL);
     verify(parametersTranslate).getTranslateGroup(
         groupedParameterDTO,
         "nxt-msa-hierarchy-parameter_200_01",
@@ -106,20 +121,19 @@ class ParameterControllerTest {
     ResponseDTO expectedResponse = new ResponseDTO();
 
     // Traducciones simuladas (el cache)
-    List<TranslateDTO> fakeTranslations = List.of(
+    TranslationIndex fakeTranslations = new TranslationIndex(List.of(
         TranslateDTO.builder()
             .codeMessage("nxt-msa-hierarchy-parameter_200_02")
             .message("Plantilla obtenida correctamente")
             .build()
-    );
+    ));
 
     // Mock del resultado del template
     when(parametersService.getTemplate(hierarchyId, parameterId))
         .thenReturn(CompletableFuture.completedFuture(mockTemplateList));
 
     // Mock del cache de traducciones
-    when(parametersService.getTranslate(ESPANOL))
-        .thenReturn(CompletableFuture.completedFuture(fakeTranslations));
+    when(translationStore.getTranslations(ParameterController.MODULE, ESPANOL)).thenReturn(fakeTranslations);
 
     // Mock del ensamblado final del ResponseDTO
     when(parametersTranslate.getTranslateGroup(
@@ -130,11 +144,11 @@ class ParameterControllerTest {
 
     // Act
     ResponseDTO actualResponse = parameterController.getTemplate(
-        hierarchyId, parameterId, mock(HttpServletRequest.class), mock(ServletResponse.class), ESPANOL);
+        hierarchyId, parameterId, mock(HttpServletRequest.class), mock(ServletResponse.class), null, ESPANOL).join().getBody();
 
     // Assert
     verify(parametersService).getTemplate(hierarchyId, parameterId);
-    verify(parametersService).getTranslate(ESPANOL);
+    verify(translationStore).getTranslations(ParameterController.MODULE, ESPANOL);
     verify(parametersTranslate).getTranslateGroup(
         mockTemplateList,
         "nxt-msa-hierarchy-parameter_200_02",
@@ -156,20 +170,19 @@ class ParameterControllerTest {
     ResponseDataParameterDTO expectedResponse = new ResponseDataParameterDTO();
 
     // Traducciones simuladas
-    List<TranslateDTO> fakeTranslations = List.of(
+    TranslationIndex fakeTranslations = new TranslationIndex(List.of(
         TranslateDTO.builder()
             .codeMessage("nxt-msa-hierarchy-parameter_200_03")
             .message("Parámetros obtenidos correctamente")
             .build()
-    );
+    ));
 
     // Resultado del servicio simulado
-    when(parametersService.getDataHierarchy(hierarchyId, parameterId, propertyId, page, size))
+    when(parametersService.getDataHierarchy(hierarchyId, parameterId, propertyId, page, size, true))
         .thenReturn(CompletableFuture.completedFuture(mockResponseData));
 
     // Traducciones en caché simuladas
-    when(parametersService.getTranslate(ESPANOL))
-        .thenReturn(CompletableFuture.completedFuture(fakeTranslations));
+    when(translationStore.getTranslations(ParameterController.MODULE, ESPANOL)).thenReturn(fakeTranslations);
 
     // Traducción aplicada al resultado
     when(parametersTranslate.getTranslateResponseDataParameter(
@@ -180,12 +193,12 @@ class ParameterControllerTest {
 
     // Act
     ResponseDataParameterDTO actualResponse = parameterController.getParameters(
-        hierarchyId, parameterId, propertyId, page, size,
-        mock(HttpServletRequest.class), mock(ServletResponse.class), "es");
+        hierarchyId, parameterId, propertyId, page, size, null, true,
+        mock(HttpServletRequest.class), mock(ServletResponse.class), null, "es").join().getBody();
 
     // Assert
-    verify(parametersService).getDataHierarchy(hierarchyId, parameterId, propertyId, page, size);
-    verify(parametersService).getTranslate(ESPANOL);
+    verify(parametersService).getDataHierarchy(hierarchyId, parameterId, propertyId, page, size, true);
+    verify(translationStore).getTranslations(ParameterController.MODULE, ESPANOL);
     verify(parametersTranslate).getTranslateResponseDataParameter(
         mockResponseData,
         "nxt-msa-hierarchy-parameter_200_03",
@@ -193,6 +206,77 @@ class ParameterControllerTest {
     );
     assertEquals(expectedResponse, actualResponse);
   }
+  @Test
+  void getParametersWithCursorShouldUseKeysetPagination() throws Exception {
+    ResponseDataParameterDTO mockResponseData = new ResponseDataParameterDTO();
+    TranslationIndex fakeTranslations = new TranslationIndex(List.of());
+
+    when(parametersService.getDataHierarchyByCursor(1, 2, 3, "", 10))
+        .thenReturn(CompletableFuture.completedFuture(mockResponseData));
+    when(translationStore.getTranslations(ParameterController.MODULE, ESPANOL)).thenReturn(fakeTranslations);
+    when(parametersTranslate.getTranslateResponseDataParameter(
+        eq(mockResponseData),
+        eq("nxt-msa-hierarchy-parameter_200_03"),
+        eq(fakeTranslations)))
+        .thenReturn(mockResponseData);
+
+    ResponseDataParameterDTO actualResponse = parameterController.getParameters(
+        1, 2, 3, null, 10, "", true,
+        mock(HttpServletRequest.class), mock(ServletResponse.class), null, ESPANOL).join().getBody();
+
+    verify(parametersService).getDataHierarchyByCursor(1, 2, 3, "", 10);
+    verify(parametersService, never()).getDataHierarchy(any(), any(), any(), any(), any(), anyBoolean());
+    assertEquals(mockResponseData, actualResponse);
+  }
+
+  @Test
+  void getCatalogShouldAnswerNotModifiedWithoutQueryingCatalog() {
+    when(parametersService.getParametersETag(5)).thenReturn(CompletableFuture.completedFuture("3-1-100"));
+
+    ResponseEntity<ResponseDTO> response = parameterController.getCatalog(
+        5, mock(ServletResponse.class), "W/\"2-1-100\", \"3-1-100\"", ESPANOL).join();
+
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertEquals("\"3-1-100\"", response.getHeaders().getETag());
+    assertEquals(List.of(HttpHeaders.ACCEPT_LANGUAGE), response.getHeaders().getVary());
+    verify(parametersService, never()).getCatalog(any());
+  }
+
+  @Test
+  void getCatalogShouldSendETagWhenItDoesNotMatch() {
+    GroupedParameterDTO catalog = new GroupedParameterDTO();
+    ResponseDTO expectedResponse = new ResponseDTO();
+    when(parametersService.getParametersETag(5)).thenReturn(CompletableFuture.completedFuture("4-1-100"));
+    when(parametersService.getCatalog(5)).thenReturn(CompletableFuture.completedFuture(catalog));
+    when(translationStore.getTranslations(ParameterController.MODULE, ESPANOL)).thenReturn(translations);
+    when(parametersTranslate.getTranslateGroup(eq(catalog), eq("nxt-msa-hierarchy-parameter_200_01"), eq(translations)))
+        .thenReturn(expectedResponse);
+
+    ResponseEntity<ResponseDTO> response = parameterController.getCatalog(
+        5, mock(ServletResponse.class), "\"3-1-100\"", ESPANOL).join();
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("\"4-1-100\"", response.getHeaders().getETag());
+    assertEquals(expectedResponse, response.getBody());
+  }
+
+  @Test
+  void getCatalogsShouldStreamCatalogsInOneResponse() throws Exception {
+    List<GroupedParameterDTO> catalogs = List.of(
+        GroupedParameterDTO.builder().idHierarchy(1).categories(new ArrayList<>()).build(),
+        GroupedParameterDTO.builder().idHierarchy(2).categories(new ArrayList<>()).build());
+    when(parametersService.getCatalogs(List.of(1, 2)))
+        .thenReturn(CompletableFuture.completedFuture(catalogs));
+
+    ResponseEntity<StreamingResponseBody> response =
+        parameterController.getCatalogs(List.of(1, 2), mock(HttpServletRequest.class), ParameterController.JSON_LINES).join();
+    response.getBody().writeTo(new ByteArrayOutputStream());
+
+    assertEquals(MediaType.parseMediaType(ParameterController.JSON_LINES), response.getHeaders().getContentType());
+    verify(parametersService).getCatalogs(List.of(1, 2));
+    verify(parametersService).writeCatalogs(eq(catalogs), any());
+  }
+
   @Test
   void createParameterShouldReturnTranslatedResponse() {
     // Arrange
@@ -220,24 +304,21 @@ class ParameterControllerTest {
     String expectedCode = "nxt-msa-hierarchy-parameter_201_01";
     String expectedMessage = "Parámetro creado correctamente";
 
-    List<TranslateDTO> translations = List.of(
+    TranslationIndex translations = new TranslationIndex(List.of(
         TranslateDTO.builder()
             .codeMessage(expectedCode)
             .message(expectedMessage)
             .build()
-    );
+    ));
 
     // Simula respuestas del servicio
     when(parametersService.create(inputDto))
         .thenReturn(CompletableFuture.completedFuture(createdDto));
-    when(parametersService.getTranslate(ESPANOL))
-        .thenReturn(CompletableFuture.completedFuture(translations));
+    when(translationStore.getTranslations(ParameterController.MODULE, ESPANOL)).thenReturn(translations);
 
-    // Forzamos el cache en el controlador
-    ReflectionTestUtils.setField(parameterController, "listTranslate", translations);
 
     // Simulamos la traducción de respuesta
-    when(parametersTranslate.getTranslateResponseDataParameter(any(), eq(expectedCode), anyList()))
+    when(parametersTranslate.getTranslateResponseDataParameter(any(), eq(expectedCode), any(TranslationIndex.class)))
         .thenAnswer(invocation -> {
           ResponseDataParameterDTO response = invocation.getArgument(0);
           response.setResponseCode(ResponseCodeDTO.builder()
@@ -250,7 +331,7 @@ class ParameterControllerTest {
 
     // Act
     ResponseDataParameterDTO actualResponse = parameterController.createParameter(
-        inputDto, mock(HttpServletRequest.class), ESPANOL);
+        inputDto, mock(HttpServletRequest.class), ESPANOL).join();
 
     // Assert
     assertNotNull(actualResponse, "La respuesta no debe ser null");
@@ -272,10 +353,10 @@ class ParameterControllerTest {
 
     // Simula la llamada asincrónica vacía
     when(parametersService.update(dto)).thenReturn(CompletableFuture.completedFuture(null));
-    when(parametersService.getTranslate(ESPANOL)).thenReturn(CompletableFuture.completedFuture(translations));
+    when(translationStore.getTranslations(ParameterController.MODULE, ESPANOL)).thenReturn(translations);
 
     // Simula traducción
-    when(parametersTranslate.getTranslateResponseDataParameter(any(), anyString(), anyList()))
+    when(parametersTranslate.getTranslateResponseDataParameter(any(), anyString(), any(TranslationIndex.class)))
         .thenAnswer(invocation -> {
           ResponseDataParameterDTO response = invocation.getArgument(0);
           String code = invocation.getArgument(1);
@@ -284,7 +365,7 @@ class ParameterControllerTest {
         });
 
     // Act
-    ResponseDataParameterDTO result = parameterController.updateParameter(dto, null, ESPANOL);
+    ResponseDataParameterDTO result = parameterController.updateParameter(dto, null, ESPANOL).join();
 
     // Assert
     assertNotNull(result);
@@ -300,11 +381,10 @@ class ParameterControllerTest {
     int elementsToSpread = 3;
     // Simula la llamada asincrónica vacía
     when(parametersService.spread(dto)).thenReturn(CompletableFuture.completedFuture(elementsToSpread));
-    ReflectionTestUtils.setField(parameterController, "listTranslate", translations);
-    when(parametersService.getTranslate(ESPANOL)).thenReturn(CompletableFuture.completedFuture(translations));
+    when(translationStore.getTranslations(ParameterController.MODULE, ESPANOL)).thenReturn(translations);
 
     // Simula traducción
-    when(parametersTranslate.getTranslateResponseDataParameter(any(), anyString(), anyList()))
+    when(parametersTranslate.getTranslateResponseDataParameter(any(), anyString(), any(TranslationIndex.class)))
         .thenAnswer(invocation -> {
           ResponseDataParameterDTO response = invocation.getArgument(0);
           String code = invocation.getArgument(1);
@@ -313,7 +393,7 @@ class ParameterControllerTest {
         });
 
     // Act
-    ResponseDataParameterDTO response = parameterController.spreadParameter(dto, mock(HttpServletRequest.class), ESPANOL);
+    ResponseDataParameterDTO response = parameterController.spreadParameter(dto, mock(HttpServletRequest.class), ESPANOL).join();
 
     // Assert
     assertNotNull(response);
@@ -321,7 +401,16 @@ class ParameterControllerTest {
     verify(parametersService).spread(dto);
   }
 
+  @Test
+  void getCatalogShouldReportServiceErrorWithEndpointCode() {
+    when(parametersService.getCatalog(1))
+        .thenReturn(CompletableFuture.failedFuture(new HierarchyException(ERROR_NODE_ENABLED, "Error node deshabilitado")));
+    when(translationStore.getTranslations(ParameterController.MODULE, ESPANOL)).thenReturn(translations);
 
+    CompletionException e = assertThrows(CompletionException.class,
+        () -> parameterController.getCatalog(1, mock(ServletResponse.class), null, ESPANOL).join());
 
-
+    HierarchyException cause = assertInstanceOf(HierarchyException.class, e.getCause());
+    assertEquals(ERROR_GROUP_PARAMETER, cause.getCode());
+  }
 }
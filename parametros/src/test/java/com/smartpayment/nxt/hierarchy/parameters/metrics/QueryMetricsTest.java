@@ -0,0 +1,40 @@
+package com.smartpayment.nxt.hierarchy.parameters.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.CALL_GET_PARAMETERS_HIERARCHY;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.GET_GROUPED_PARAMETERS;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.HIERARCHY_PROPERTY_ID_PAGINATION_LOOKAHEAD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryMetricsTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final QueryMetrics queryMetrics = new QueryMetrics(registry);
+
+  @Test
+  void shouldNameQueriesByConstant() {
+    assertEquals("GET_GROUPED_PARAMETERS", queryMetrics.name(GET_GROUPED_PARAMETERS));
+    assertEquals("CALL_GET_PARAMETERS_HIERARCHY+HIERARCHY_PROPERTY_ID_PAGINATION_LOOKAHEAD",
+        queryMetrics.name(CALL_GET_PARAMETERS_HIERARCHY + " " + HIERARCHY_PROPERTY_ID_PAGINATION_LOOKAHEAD));
+    assertEquals(QueryMetrics.OTHER, queryMetrics.name("select 1"));
+  }
+
+  @Test
+  void shouldRecordTimeRowsAndErrors() {
+    queryMetrics.record("readonly", GET_GROUPED_PARAMETERS, () -> List.of(1, 2, 3), List::size);
+    assertThrows(IllegalStateException.class, () -> queryMetrics.record("readonly", GET_GROUPED_PARAMETERS,
+        () -> { throw new IllegalStateException("db down"); }, result -> 0));
+
+    assertEquals(1, registry.get(QueryMetrics.METRIC_NAME).tag("query", "GET_GROUPED_PARAMETERS")
+        .tag("outcome", "success").timer().count());
+    assertEquals(3, registry.get(QueryMetrics.METRIC_NAME + ".rows").tag("query", "GET_GROUPED_PARAMETERS")
+        .summary().totalAmount());
+    assertEquals(1, registry.get(QueryMetrics.METRIC_NAME + ".errors").tag("exception", "IllegalStateException")
+        .counter().count());
+  }
+}
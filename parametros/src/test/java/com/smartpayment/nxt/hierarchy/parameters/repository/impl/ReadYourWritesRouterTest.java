@@ -0,0 +1,67 @@
+package com.smartpayment.nxt.hierarchy.parameters.repository.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.GET_PRIMARY_WAL_LSN;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.GET_REPLICA_REPLAY_LSN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadYourWritesRouterTest {
+
+  private final NamedParameterJdbcTemplate primary = mock(NamedParameterJdbcTemplate.class);
+  private final NamedParameterJdbcTemplate replica = mock(NamedParameterJdbcTemplate.class);
+  private final ResultSet replicaRow = mock(ResultSet.class);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private ReadYourWritesRouter router;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() throws Exception {
+    when(primary.query(eq(GET_PRIMARY_WAL_LSN), any(SqlParameterSource.class), any(RowMapper.class)))
+        .thenReturn(List.of("1/200"));
+    when(replica.query(eq(GET_REPLICA_REPLAY_LSN), any(SqlParameterSource.class), any(RowMapper.class)))
+        .thenAnswer(invocation -> List.of(((RowMapper<?>) invocation.getArgument(2)).mapRow(replicaRow, 0)));
+    router = new ReadYourWritesRouter(primary, replica, registry, true, Duration.ofSeconds(30), Duration.ZERO);
+  }
+
+  @Test
+  void shouldReadFromPrimaryUntilReplicaCatchesUp() throws Exception {
+    assertSame(replica, router.reader(10));
+
+    router.markWritten(10);
+    when(replicaRow.getString("lsn")).thenReturn("1/1FF");
+    assertSame(primary, router.reader(10));
+    assertSame(replica, router.reader(11));
+
+    when(replicaRow.getString("lsn")).thenReturn("1/200");
+    assertSame(replica, router.reader(10));
+    assertEquals(1, registry.get(ReadYourWritesRouter.METRIC_NAME + ".reads").tag("target", "primary").counter().count());
+  }
+
+  @Test
+  void shouldRouteAllNodesAfterSubtreeWrite() throws Exception {
+    router.markAllWritten();
+    when(replicaRow.getString("lsn")).thenReturn("1/100");
+    assertSame(primary, router.reader(42));
+    assertSame(primary, router.reader(null));
+  }
+
+  @Test
+  void shouldParseLsn() {
+    assertEquals((0x16L << 32) | 0xB374D848L, ReadYourWritesRouter.parseLsn("16/B374D848"));
+  }
+}
@@ -0,0 +1,232 @@
+package com.smartpayment.nxt.hierarchy.parameters.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartpayment.nxt.hierarchy.parameters.cache.CacheInvalidationChannel;
+import com.smartpayment.nxt.hierarchy.parameters.cache.CatalogCache;
+import com.smartpayment.nxt.hierarchy.parameters.cache.EffectiveParameterCache;
+import com.smartpayment.nxt.hierarchy.parameters.cache.HierarchyIndex;
+import com.smartpayment.nxt.hierarchy.parameters.cache.HierarchyNodeCache;
+import com.smartpayment.nxt.hierarchy.parameters.cache.NodeTypeTemplateCache;
+import com.smartpayment.nxt.hierarchy.parameters.dto.BulkItemResultDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.EffectiveParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.HierarchyNodeDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.SpreadDiffResultDTO;
+import com.smartpayment.nxt.hierarchy.parameters.dto.ResponseParameterDTO;
+import com.smartpayment.nxt.hierarchy.parameters.models.HierarchyParameterKey;
+import com.smartpayment.nxt.hierarchy.parameters.models.ParameterDefinition;
+import com.smartpayment.nxt.hierarchy.parameters.repository.ParametersRepository;
+import com.smartpayment.nxt.hierarchy.parameters.repository.impl.ReadYourWritesRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ALL_NODES;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterConstants.ERROR_CREATE_PARAMETER;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.ACTIVE;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.INSERT_ID_HIERARCHY_PARAMETERS_PROPERTIES_BATCH;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.SPREAD_DIFF_DELETE_PARAMETERS;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.SPREAD_DIFF_DELETE_PROPERTIES;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.SPREAD_DIFF_INSERT_PARAMETERS;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.SPREAD_DIFF_INSERT_PROPERTIES;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.SPREAD_DIFF_UPDATE_PARAMETERS;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.SPREAD_DIFF_UPDATE_PROPERTIES;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.UPDATE_BT_HIERARCHY_PARAMETER_PROPAGE;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.UPDATE_ID_HIERARCHY_PARAMETERS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParameterServiceImplTest {
+
+  private final ParametersRepository repository = mock(ParametersRepository.class);
+  private final CatalogCache catalogCache = mock(CatalogCache.class);
+  private final HierarchyNodeCache hierarchyNodeCache = mock(HierarchyNodeCache.class);
+  private final ReadYourWritesRouter readYourWritesRouter = mock(ReadYourWritesRouter.class);
+  private final EffectiveParameterCache effectiveParameterCache = mock(EffectiveParameterCache.class);
+  private final HierarchyIndex hierarchyIndex = mock(HierarchyIndex.class);
+  private final CacheInvalidationChannel cacheInvalidationChannel = mock(CacheInvalidationChannel.class);
+  private ParameterServiceImpl service;
+
+  @BeforeEach
+  void setUp() {
+    service = new ParameterServiceImpl(repository, new ObjectMapper(), catalogCache,
+        hierarchyNodeCache, mock(NodeTypeTemplateCache.class), readYourWritesRouter,
+        effectiveParameterCache, hierarchyIndex, cacheInvalidationChannel);
+    ReflectionTestUtils.setField(service, "bulkMaxItems", 10);
+    ReflectionTestUtils.setField(service, "bulkBatchSize", 1);
+  }
+
+  @Test
+  void createBulkShouldFailOnlyTheItemsOfTheFailedChunk() {
+    List<ResponseParameterDTO> dtos = List.of(item(1), item(2), item(3));
+    when(repository.getStatusHierarchies(any())).thenReturn(Map.of(5, ACTIVE));
+    when(repository.getHierarchyParameterIds(any())).thenReturn(Map.of(
+        new HierarchyParameterKey(5, 7, 1), 101,
+        new HierarchyParameterKey(5, 7, 2), 102,
+        new HierarchyParameterKey(5, 7, 3), 103));
+    when(repository.createObjectsBatch(eq(INSERT_ID_HIERARCHY_PARAMETERS_PROPERTIES_BATCH), anyList(), eq("hierarchy_property_id")))
+        .thenReturn(List.of(11))
+        .thenThrow(new DataIntegrityViolationException("duplicado"))
+        .thenReturn(List.of(13));
+
+    List<BulkItemResultDTO> results = service.createBulk(dtos).join();
+
+    assertTrue(results.get(0).isSuccess());
+    assertEquals(11, results.get(0).getId());
+    assertFalse(results.get(1).isSuccess());
+    assertEquals(ERROR_CREATE_PARAMETER, results.get(1).getCode());
+    assertTrue(results.get(2).isSuccess());
+    assertEquals(13, results.get(2).getId());
+    verify(repository, times(3)).createObjectsBatch(any(), anyList(), any());
+    verify(repository).updateObjectsBatch(eq(UPDATE_BT_HIERARCHY_PARAMETER_PROPAGE), anyList());
+  }
+
+  @Test
+  void updateShouldMarkRouterBeforeEvictingCachesOnCommit() {
+    activeNode(5);
+    when(repository.updateObject(eq(UPDATE_ID_HIERARCHY_PARAMETERS), any())).thenReturn(1);
+
+    service.update(item(1)).join();
+
+    // Sin transacción activa afterCommit corre de inmediato, después de la invalidación previa
+    InOrder order = inOrder(readYourWritesRouter, catalogCache, effectiveParameterCache);
+    order.verify(readYourWritesRouter).markWritten(5);
+    order.verify(catalogCache).evict(5);
+    order.verify(effectiveParameterCache).evict(5);
+  }
+
+  @Test
+  void spreadDiffShouldReportEachStatementAndInvalidateAllNodesWhenItWrites() {
+    activeNode(5);
+    when(repository.updateObject(eq(SPREAD_DIFF_DELETE_PARAMETERS), any())).thenReturn(1);
+    when(repository.updateObject(eq(SPREAD_DIFF_UPDATE_PARAMETERS), any())).thenReturn(2);
+    when(repository.updateObject(eq(SPREAD_DIFF_INSERT_PARAMETERS), any())).thenReturn(3);
+    when(repository.updateObject(eq(SPREAD_DIFF_UPDATE_PROPERTIES), any())).thenReturn(4);
+    when(repository.updateObject(eq(SPREAD_DIFF_DELETE_PROPERTIES), any())).thenReturn(5);
+    when(repository.updateObject(eq(SPREAD_DIFF_INSERT_PROPERTIES), any())).thenReturn(6);
+
+    SpreadDiffResultDTO result = service.spreadDiff(item(1)).join();
+
+    assertEquals(1, result.getDeletedParameters());
+    assertEquals(2, result.getUpdatedParameters());
+    assertEquals(3, result.getInsertedParameters());
+    assertEquals(4, result.getUpdatedProperties());
+    assertEquals(5, result.getDeletedProperties());
+    assertEquals(6, result.getInsertedProperties());
+    assertEquals(21, result.getTotalWrites());
+    verify(repository).bumpParametersVersion(ALL_NODES);
+    verify(cacheInvalidationChannel).publishAll(7);
+    verify(readYourWritesRouter).markAllWritten();
+    verify(repository, never()).bumpParametersVersion(5);
+    verify(readYourWritesRouter, never()).markWritten(5);
+  }
+
+  @Test
+  void spreadDiffWithoutChangesShouldOnlyInvalidateTheNode() {
+    activeNode(5);
+    when(repository.updateObject(any(), any())).thenReturn(0);
+
+    SpreadDiffResultDTO result = service.spreadDiff(item(1)).join();
+
+    assertEquals(0, result.getTotalWrites());
+    verify(repository).bumpParametersVersion(5);
+    verify(cacheInvalidationChannel).publish(5, 7);
+    verify(readYourWritesRouter).markWritten(5);
+    verify(repository, never()).bumpParametersVersion(ALL_NODES);
+    verify(readYourWritesRouter, never()).markAllWritten();
+    verify(catalogCache, never()).evictAll();
+  }
+
+  @Test
+  void getEffectiveParametersShouldTakeEachParameterFromTheNearestDefiningNode() {
+    when(hierarchyIndex.ancestors(30)).thenReturn(List.of(30, 20, 10));
+    resolveEffectiveWithDefinitions();
+
+    List<EffectiveParameterDTO> effective = service.getEffectiveParameters(30, null).join();
+
+    assertEffectiveChain(effective);
+    verify(repository, never()).getAncestors(any());
+  }
+
+  @Test
+  void getEffectiveParametersShouldQueryAncestorsWhenIndexMissesTheNode() {
+    when(hierarchyIndex.ancestors(30)).thenReturn(null);
+    when(repository.getAncestors(30)).thenReturn(List.of(30, 20, 10));
+    resolveEffectiveWithDefinitions();
+
+    List<EffectiveParameterDTO> effective = service.getEffectiveParameters(30, null).join();
+
+    assertEffectiveChain(effective);
+    verify(repository).getAncestors(30);
+  }
+
+  /**
+   * Cadena 30 -> 20 -> 10. La propiedad 1 la definen 30 y 20, la 2 la definen 20 y 10, la 3 y
+   * la 4 las bloquea 20 (deshabilitada, sin propiedades activas) y la 5 solo la define 10.
+   */
+  private void resolveEffectiveWithDefinitions() {
+    when(effectiveParameterCache.get(any(), any())).thenAnswer(invocation ->
+        invocation.<Function<Integer, List<EffectiveParameterDTO>>>getArgument(1).apply(invocation.getArgument(0)));
+    when(effectiveParameterCache.definitions(any(), any())).thenAnswer(invocation ->
+        invocation.<Function<Collection<Integer>, Map<Integer, List<ParameterDefinition>>>>getArgument(1)
+            .apply(invocation.getArgument(0)));
+    when(repository.getParameterDefinitions(any())).thenReturn(Map.of(
+        30, List.of(definition(30, 1, ACTIVE)),
+        20, List.of(definition(20, 1, ACTIVE), definition(20, 2, ACTIVE), definition(20, 3, ACTIVE + 1),
+            new ParameterDefinition(20, 7, 4, ACTIVE, List.of())),
+        10, List.of(definition(10, 2, ACTIVE), definition(10, 3, ACTIVE), definition(10, 4, ACTIVE),
+            definition(10, 5, ACTIVE))));
+  }
+
+  private static void assertEffectiveChain(List<EffectiveParameterDTO> effective) {
+    assertEquals(3, effective.size());
+    assertInherited(effective.get(0), 1, 30, false);
+    assertInherited(effective.get(1), 2, 20, true);
+    assertInherited(effective.get(2), 5, 10, true);
+  }
+
+  private static void assertInherited(EffectiveParameterDTO parameter, int idProperty, int inheritedFrom, boolean inherited) {
+    assertEquals(30, parameter.getIdHierarchy());
+    assertEquals(idProperty, parameter.getIdProperty());
+    assertEquals(inheritedFrom, parameter.getInheritedFrom());
+    assertEquals(inherited, parameter.getInherited());
+    assertEquals("v" + inheritedFrom, parameter.getValues().get(0).getAmount());
+  }
+
+  private static ParameterDefinition definition(int idHierarchy, int idProperty, int status) {
+    return new ParameterDefinition(idHierarchy, 7, idProperty, status,
+        List.of(ResponseParameterDTO.builder().idHierarchy(idHierarchy).idProperty(idProperty).amount("v" + idHierarchy).build()));
+  }
+
+  private void activeNode(Integer idHierarchy) {
+    when(hierarchyNodeCache.get(eq(idHierarchy), any()))
+        .thenReturn(HierarchyNodeDTO.builder().idHierarchy(idHierarchy).status(ACTIVE).build());
+  }
+
+  private static ResponseParameterDTO item(int idProperty) {
+    return ResponseParameterDTO.builder()
+        .idHierarchy(5)
+        .idSystem(7)
+        .idProperty(idProperty)
+        .amount("1")
+        .labelParameter("ok")
+        .status(ACTIVE)
+        .build();
+  }
+}
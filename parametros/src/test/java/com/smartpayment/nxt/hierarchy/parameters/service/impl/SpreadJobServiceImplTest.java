@@ -0,0 +1,162 @@
+package com.smartpayment.nxt.hierarchy.parameters.service.impl;
+
+import com.smartpayment.nxt.hierarchy.parameters.cache.CacheInvalidationChannel;
+import com.smartpayment.nxt.hierarchy.parameters.cache.CatalogCache;
+import com.smartpayment.nxt.hierarchy.parameters.cache.EffectiveParameterCache;
+import com.smartpayment.nxt.hierarchy.parameters.cache.HierarchyNodeCache;
+import com.smartpayment.nxt.hierarchy.parameters.dto.SpreadJobDTO;
+import com.smartpayment.nxt.hierarchy.parameters.repository.ParametersRepository;
+import com.smartpayment.nxt.hierarchy.parameters.repository.impl.ReadYourWritesRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.CLAIM_SPREAD_JOB;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.DELETE_HIERARCHY_PARAMETERS_CHILD_LEVEL;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.HEARTBEAT_SPREAD_JOB;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.UPDATE_BT_HIERARCHY_PARAMETER_PROPAGE;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.UPDATE_SPREAD_JOB_PROGRESS;
+import static com.smartpayment.nxt.hierarchy.parameters.constant.ParameterQueries.UPDATE_SPREAD_JOB_STATUS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SpreadJobServiceImplTest {
+  private static final String OWNER = "instancia-1";
+  private static final UUID JOB_ID = UUID.randomUUID();
+
+  private final ParametersRepository repository = mock(ParametersRepository.class);
+  private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+  private final TransactionStatus transaction = mock(TransactionStatus.class);
+  private SpreadJobServiceImpl service;
+
+  @BeforeEach
+  void setUp() {
+    service = new SpreadJobServiceImpl(repository, mock(CatalogCache.class), mock(EffectiveParameterCache.class),
+        mock(HierarchyNodeCache.class), mock(ReadYourWritesRouter.class),
+        mock(CacheInvalidationChannel.class), Runnable::run, transactionManager, 300, OWNER);
+    when(transactionManager.getTransaction(any())).thenReturn(transaction);
+    when(repository.updateObject(anyString(), any())).thenReturn(1);
+    when(repository.lockSpreadJob(JOB_ID, OWNER)).thenReturn(2);
+    when(repository.getSpreadJob(JOB_ID)).thenReturn(job(SpreadJobDTO.RUNNING, 2, 4));
+  }
+
+  @Test
+  void runShouldSkipJobClaimedByAnotherInstance() {
+    when(repository.updateObject(eq(CLAIM_SPREAD_JOB), any())).thenReturn(0);
+
+    service.run(JOB_ID);
+
+    verify(repository, never()).getSpreadJob(any());
+    verify(repository, never()).updateObject(eq(UPDATE_SPREAD_JOB_STATUS), any());
+  }
+
+  @Test
+  void runShouldCompleteEveryPendingLevelWithItsOwner() {
+    service.run(JOB_ID);
+
+    verify(repository).updateObject(eq(CLAIM_SPREAD_JOB), argThat(hasOwner()));
+    verify(repository, times(2)).updateObject(eq(UPDATE_SPREAD_JOB_PROGRESS), argThat(hasOwner()));
+    verify(repository).updateObject(eq(UPDATE_BT_HIERARCHY_PARAMETER_PROPAGE), any());
+    verify(repository).updateObject(eq(UPDATE_SPREAD_JOB_STATUS), argThat(hasStatus(SpreadJobDTO.COMPLETED)));
+    // Un commit por nivel, cada uno empieza bloqueando la fila del trabajo
+    verify(repository, times(2)).lockSpreadJob(JOB_ID, OWNER);
+    verify(transactionManager, times(2)).commit(transaction);
+  }
+
+  @Test
+  void runShouldSkipLevelAlreadyCommittedByAnotherRun() {
+    when(repository.lockSpreadJob(JOB_ID, OWNER)).thenReturn(3);
+
+    service.run(JOB_ID);
+
+    verify(repository).updateObject(eq(UPDATE_SPREAD_JOB_PROGRESS), argThat(params -> params != null
+        && params.hasValue("lastLevel") && Integer.valueOf(4).equals(params.getValue("lastLevel"))));
+    verify(repository).updateObject(eq(DELETE_HIERARCHY_PARAMETERS_CHILD_LEVEL), any());
+  }
+
+  @Test
+  void runShouldStopWithoutStatusWhenJobRowIsNoLongerOwned() {
+    when(repository.lockSpreadJob(JOB_ID, OWNER)).thenReturn(null);
+
+    service.run(JOB_ID);
+
+    verify(transactionManager).rollback(transaction);
+    verify(repository, never()).updateObject(eq(DELETE_HIERARCHY_PARAMETERS_CHILD_LEVEL), any());
+    verify(repository, never()).updateObject(eq(UPDATE_SPREAD_JOB_PROGRESS), any());
+    verify(repository, never()).updateObject(eq(UPDATE_BT_HIERARCHY_PARAMETER_PROPAGE), any());
+    verify(repository, never()).updateObject(eq(UPDATE_SPREAD_JOB_STATUS), any());
+  }
+
+  @Test
+  void runShouldStopWithoutStatusWhenProgressBelongsToAnotherOwner() {
+    when(repository.updateObject(eq(UPDATE_SPREAD_JOB_PROGRESS), any())).thenReturn(0);
+
+    service.run(JOB_ID);
+
+    verify(repository).updateObject(eq(UPDATE_SPREAD_JOB_PROGRESS), any());
+    verify(repository, never()).updateObject(eq(UPDATE_SPREAD_JOB_STATUS), any());
+  }
+
+  @Test
+  void runShouldMarkJobFailedWhenStatementFails() {
+    when(repository.updateObject(eq(UPDATE_SPREAD_JOB_PROGRESS), any())).thenReturn(null);
+
+    service.run(JOB_ID);
+
+    verify(repository).updateObject(eq(UPDATE_SPREAD_JOB_STATUS), argThat(hasStatus(SpreadJobDTO.FAILED)));
+    verify(repository, never()).updateObject(eq(UPDATE_BT_HIERARCHY_PARAMETER_PROPAGE), any());
+    // El borrado del nivel se revierte junto con la sentencia que falló
+    verify(transactionManager).rollback(transaction);
+    verify(transactionManager, never()).commit(transaction);
+  }
+
+  @Test
+  void resumePendingShouldRunOwnAndStaleJobs() {
+    when(repository.getResumableSpreadJobs(OWNER, 300)).thenReturn(List.of(job(SpreadJobDTO.RUNNING, 2, 3)));
+
+    service.resumePending();
+
+    verify(repository).updateObject(eq(CLAIM_SPREAD_JOB), argThat(hasOwner()));
+    verify(repository).updateObject(eq(UPDATE_SPREAD_JOB_STATUS), argThat(hasStatus(SpreadJobDTO.COMPLETED)));
+  }
+
+  @Test
+  void renewLeasesShouldIgnoreIdleInstance() {
+    service.renewLeases();
+
+    verify(repository, never()).updateObject(eq(HEARTBEAT_SPREAD_JOB), any());
+  }
+
+  private static SpreadJobDTO job(String status, int lastLevel, int maxLevel) {
+    return SpreadJobDTO.builder()
+        .jobId(JOB_ID)
+        .idHierarchy(5)
+        .idSystem(7)
+        .status(status)
+        .rootLevel(1)
+        .lastLevel(lastLevel)
+        .maxLevel(maxLevel)
+        .build();
+  }
+
+  private static ArgumentMatcher<MapSqlParameterSource> hasOwner() {
+    return params -> params != null && params.hasValue("owner") && OWNER.equals(params.getValue("owner"));
+  }
+
+  private static ArgumentMatcher<MapSqlParameterSource> hasStatus(String status) {
+    return params -> params != null && params.hasValue("owner") && OWNER.equals(params.getValue("owner")) && status.equals(params.getValue("status"));
+  }
+}
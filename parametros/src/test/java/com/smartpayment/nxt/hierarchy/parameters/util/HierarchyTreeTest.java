@@ -0,0 +1,78 @@
+package com.smartpayment.nxt.hierarchy.parameters.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchyTreeTest {
+
+  // 1 -> (2 -> 4), (3 -> 5); 6 raíz; 7 <-> 8 ciclo
+  private final HierarchyTree tree = HierarchyTree.build(
+      new int[]{4, 2, 1, 3, 5, 6, 7, 8},
+      new int[]{2, 1, 0, 1, 3, 0, 8, 7},
+      new int[]{30, 20, 10, 20, 30, 10, 10, 10},
+      new int[]{1, 1, 1, 2, 1, 1, 1, 1});
+
+  @Test
+  void shouldEnumerateSubtreeInPreorder() {
+    assertArrayEquals(new int[]{2, 4, 3, 5}, tree.descendants(1));
+    assertArrayEquals(new int[0], tree.descendants(6));
+    assertArrayEquals(new int[]{4, 5}, tree.descendantsAtDepth(1, 3));
+    assertEquals(4, tree.countDescendants(1));
+    assertNull(tree.descendants(99));
+  }
+
+  @Test
+  void shouldAnswerAncestryFromRanges() {
+    assertTrue(tree.isDescendant(5, 1));
+    assertFalse(tree.isDescendant(5, 2));
+    assertFalse(tree.isDescendant(1, 1));
+    assertEquals(List.of(5, 3, 1), tree.ancestors(5));
+    assertEquals(1, tree.depth(1));
+    assertEquals(3, tree.maxDepth(1));
+    assertEquals(20, tree.nodeType(3));
+    assertEquals(2, tree.status(3));
+  }
+
+  @Test
+  void shouldDropCyclesAndKeepMaxId() {
+    assertEquals(6, tree.size());
+    assertEquals(2, tree.detached());
+    assertFalse(tree.contains(7));
+    assertEquals(8, tree.maxId());
+  }
+
+  @Test
+  void shouldAddAndReplaceNodes() {
+    HierarchyTree updated = tree.withNodes(new int[]{9, 5}, new int[]{4, 2}, new int[]{30, 30}, new int[]{1, 1});
+    assertArrayEquals(new int[]{4, 9, 5}, updated.descendants(2));
+    assertFalse(updated.isDescendant(5, 3));
+    assertEquals(List.of(9, 4, 2, 1), updated.ancestors(9));
+  }
+
+  @Test
+  void shouldAppendNewNodesLikeAFullBuild() {
+    // 9 bajo 5 (fin del subárbol de 1 y de 3), 10 bajo 9, 11 bajo 2, 12 raíz nueva
+    HierarchyTree appended = tree.withNodes(new int[]{12, 10, 9, 11}, new int[]{0, 9, 5, 2},
+        new int[]{10, 30, 30, 30}, new int[]{1, 1, 1, 1});
+    HierarchyTree full = HierarchyTree.build(
+        new int[]{4, 2, 1, 3, 5, 6, 9, 10, 11, 12},
+        new int[]{2, 1, 0, 1, 3, 0, 5, 9, 2, 0},
+        new int[]{30, 20, 10, 20, 30, 10, 30, 30, 30, 10},
+        new int[]{1, 1, 1, 2, 1, 1, 1, 1, 1, 1});
+    for (int id = 1; id <= 12; id++) {
+      assertArrayEquals(full.descendants(id), appended.descendants(id));
+      assertEquals(full.ancestors(id), appended.ancestors(id));
+      assertEquals(full.maxDepth(id), appended.maxDepth(id));
+    }
+    assertArrayEquals(new int[]{2, 4, 11, 3, 5, 9, 10}, appended.descendants(1));
+    assertEquals(12, appended.maxId());
+    assertEquals(2, appended.detached());
+  }
+}
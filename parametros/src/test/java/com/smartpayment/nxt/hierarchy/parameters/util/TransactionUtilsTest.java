@@ -0,0 +1,43 @@
+package com.smartpayment.nxt.hierarchy.parameters.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.SavepointManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionUtilsTest {
+
+  private final SavepointManager transaction = mock(SavepointManager.class);
+  private final Object savepoint = new Object();
+
+  @Test
+  void shouldReleaseSavepointWhenActionSucceeds() {
+    when(transaction.createSavepoint()).thenReturn(savepoint);
+
+    assertEquals(3, TransactionUtils.inSavepoint(transaction, () -> 3));
+
+    verify(transaction).releaseSavepoint(savepoint);
+    verify(transaction, never()).rollbackToSavepoint(savepoint);
+  }
+
+  @Test
+  void shouldRollBackToSavepointWhenActionFails() {
+    when(transaction.createSavepoint()).thenReturn(savepoint);
+
+    assertThrows(IllegalStateException.class, () -> TransactionUtils.inSavepoint(transaction, () -> {
+      throw new IllegalStateException("falla");
+    }));
+
+    verify(transaction).rollbackToSavepoint(savepoint);
+  }
+
+  @Test
+  void shouldRunDirectlyWithoutTransaction() {
+    assertEquals("ok", TransactionUtils.inSavepoint(() -> "ok"));
+  }
+}